@@ -0,0 +1,151 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The cheapest actor hire problem read from the input.txt format: the number
+ * of actors n, the n base costs of hiring each actor directly from the store,
+ * the n by n discount matrix and the actor the store wishes to hire (counted
+ * from 1). The numbers are kept in primitive arrays, the discount matrix row by
+ * row, so a problem takes 8 bytes per number and no objects per token.
+ */
+public class ActorProblem {
+    // instance variables
+    private final int actors; // the number of actors
+    private final double[] baseCost; // the cost of hiring every actor directly
+    private final double[] discount; // discount[i * actors + j] is the discount of j when recommended by i
+    private final int target; // the actor the store wishes to hire, counted from 1
+
+    /**
+     * @param n        the number of actors
+     * @param baseCost the cost of hiring every actor directly
+     * @param discount the discount matrix row by row
+     * @param target   the actor to hire, counted from 1
+     */
+    public ActorProblem(int n, double[] baseCost, double[] discount, int target) {
+        if (baseCost.length != n || discount.length != (long) n * n) {
+            throw new IllegalArgumentException("cost and discount arrays do not match " + n + " actors");
+        }
+        if (target < 1 || target > n) {
+            throw new IllegalArgumentException("target actor out of range; received: " + target);
+        }
+        actors = n;
+        this.baseCost = baseCost;
+        this.discount = discount;
+        this.target = target;
+    }
+
+    /**
+     * reads a problem from a file in the input.txt format
+     *
+     * @param file the file to read
+     * @return the problem
+     * @throws IOException if the file can not be read
+     */
+    public static ActorProblem read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return read(channel);
+        }
+    }
+
+    /**
+     * reads a problem in the input.txt format from a channel
+     *
+     * @param channel the channel to read
+     * @return the problem
+     */
+    public static ActorProblem read(ReadableByteChannel channel) {
+        return read(new ByteTokenizer(channel));
+    }
+
+    /**
+     * reads the next problem from a tokenizer, leaving any tokens after it unread
+     *
+     * @param in the tokenizer to read from
+     * @return the problem
+     */
+    public static ActorProblem read(ByteTokenizer in) {
+        int n = in.nextInt();
+        if (n <= 0 || (long) n * n + n > Integer.MAX_VALUE - 8) // the graph has n + n * n edges
+        {
+            throw new IllegalArgumentException("unsupported number of actors; received: " + n);
+        }
+        double[] baseCost = new double[n];
+        in.nextDoubles(baseCost, 0, n);
+        double[] discount = new double[n * n];
+        in.nextDoubles(discount, 0, n * n);
+        return new ActorProblem(n, baseCost, discount, in.nextInt());
+    }
+
+    /**
+     * builds the graph the same way Menu does: node n is the store with an edge
+     * of the base cost to every actor, and actor i has an edge to every actor j
+     * costing the base cost of j times one minus the discount, or the full base
+     * cost when i equals j. The CSR arrays are filled directly since the number
+     * of edges of every node is known.
+     *
+     * @return the graph of the problem
+     */
+    public CSRGraph toGraph() {
+        int n = actors;
+        int[] offsets = new int[n + 2];
+        int[] targets = new int[n + n * n];
+        double[] weights = new double[n + n * n];
+        for (int i = 0; i <= n; i++) // actor i's edges come first, the store's edges last
+        {
+            offsets[i + 1] = offsets[i] + n;
+        }
+        for (int i = 0; i < n; i++) {
+            int row = i * n;
+            for (int j = 0; j < n; j++) {
+                targets[row + j] = j;
+                weights[row + j] = edgeWeight(i, j);
+            }
+        }
+        int store = n * n;
+        for (int j = 0; j < n; j++) {
+            targets[store + j] = j;
+            weights[store + j] = baseCost[j];
+        }
+        return new CSRGraph(n + 1, offsets, targets, weights);
+    }
+
+    /**
+     * @param i the recommending actor
+     * @param j the hired actor
+     * @return the cost of hiring j through i
+     */
+    public double edgeWeight(int i, int j) {
+        return i == j ? baseCost[j] : baseCost[j] * (1 - discount[i * actors + j]);
+    }
+
+    /**
+     * @return the number of actors, also the index of the store node
+     */
+    public int getActors() {
+        return actors;
+    }
+
+    /**
+     * @return the actor the store wishes to hire, counted from 1
+     */
+    public int getTarget() {
+        return target;
+    }
+
+    /**
+     * @return the cost of hiring every actor directly, not copied
+     */
+    public double[] getBaseCost() {
+        return baseCost;
+    }
+
+    /**
+     * @return the discount matrix row by row, not copied
+     */
+    public double[] getDiscount() {
+        return discount;
+    }
+}
@@ -0,0 +1,169 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs many Dijkstra queries over one graph in parallel on a ForkJoinPool. The
+ * CSRGraph is never modified by a search so all threads share it; the heap and
+ * distance arrays come from the QueryWorkspace of each worker thread, which is
+ * reused by every query that thread runs. Every worker also keeps one Dijkstra
+ * for all its tasks, so its path array and any dense solver are made once per
+ * thread instead of once per task.
+ */
+public class BatchDijkstra {
+    private static final int SPLIT_THRESHOLD = 8; // queries a task runs itself instead of splitting
+
+    // instance variables
+    private final CSRGraph graph; // the shared read only graph
+    private final ForkJoinPool pool; // the threads the queries run on
+    private final ThreadLocal<Dijkstra> searcher; // the Dijkstra of every worker thread
+
+    /**
+     * a batch runner on the common ForkJoinPool
+     *
+     * @param g the graph to search
+     */
+    public BatchDijkstra(CSRGraph g) {
+        this(g, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * a batch runner on a given pool
+     *
+     * @param g    the graph to search
+     * @param pool the pool to run the queries on
+     */
+    public BatchDijkstra(CSRGraph g, ForkJoinPool pool) {
+        graph = g;
+        this.pool = pool;
+        searcher = ThreadLocal.withInitial(() -> new Dijkstra(g));
+    }
+
+    /**
+     * the shortest distance of every (source, target) pair. Each pair is a point
+     * to point query that stops once its target is visited.
+     *
+     * @param sources the starting node of every pair
+     * @param targets the ending node of every pair
+     * @return the weight of the shortest path of every pair, positive infinity if
+     *         there is none
+     */
+    public double[] distances(int[] sources, int[] targets) {
+        if (sources.length != targets.length) {
+            throw new IllegalArgumentException("sources and targets must have the same length");
+        }
+        checkNodes(sources);
+        checkNodes(targets);
+        double[] result = new double[sources.length];
+        pool.invoke(new PairTask(sources, targets, result, 0, sources.length));
+        return result;
+    }
+
+    /**
+     * the distance matrix from every source to every node. Each row is one full
+     * search of the graph.
+     *
+     * @param sources the starting nodes
+     * @return row i holds the distances from sources[i] to every node
+     */
+    public double[][] oneToAll(int[] sources) {
+        checkNodes(sources);
+        double[][] result = new double[sources.length][];
+        pool.invoke(new RowTask(sources, result, 0, sources.length));
+        return result;
+    }
+
+    /**
+     * the distance matrix between all nodes of the graph.
+     *
+     * @return row u holds the distances from u to every node
+     */
+    public double[][] allPairs() {
+        int[] sources = new int[graph.size()];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = i;
+        }
+        return oneToAll(sources);
+    }
+
+    /**
+     * checks that every node is inside the graph before any task starts
+     */
+    private void checkNodes(int[] nodes) {
+        for (int node : nodes) {
+            if (node < 0 || node >= graph.size()) {
+                throw new IllegalArgumentException("Invalid node index");
+            }
+        }
+    }
+
+    // -------------------nested task classes---------------------------------------
+
+    /**
+     * answers the pairs from index from up to to, splitting the range in half
+     * until it is small enough.
+     */
+    private class PairTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] sources;
+        private final int[] targets;
+        private final double[] result;
+        private final int from;
+        private final int to;
+
+        PairTask(int[] sources, int[] targets, double[] result, int from, int to) {
+            this.sources = sources;
+            this.targets = targets;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                Dijkstra dj = searcher.get(); // the Dijkstra of the current worker thread
+                for (int i = from; i < to; i++) {
+                    result[i] = dj.dijkstra(sources[i], targets[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PairTask(sources, targets, result, from, middle),
+                    new PairTask(sources, targets, result, middle, to));
+        }
+    }
+
+    /**
+     * fills the distance rows from index from up to to.
+     */
+    private class RowTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] sources;
+        private final double[][] result;
+        private final int from;
+        private final int to;
+
+        RowTask(int[] sources, double[][] result, int from, int to) {
+            this.sources = sources;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) // a full search is enough work for one task
+            {
+                Dijkstra dj = searcher.get();
+                for (int i = from; i < to; i++) {
+                    result[i] = dj.distancesFrom(sources[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RowTask(sources, result, from, middle), new RowTask(sources, result, middle, to));
+        }
+    }
+}
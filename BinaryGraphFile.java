@@ -0,0 +1,165 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A compact binary file format for CSR graphs. The file is laid out so that it
+ * can be memory mapped and searched as it is, without any parsing:
+ *
+ * <pre>
+ * header   magic, version, nodes, query start, query end (ints), edges (long)
+ * offsets  nodes + 1 ints
+ * targets  edges ints
+ * weights  edges doubles
+ * </pre>
+ *
+ * All values are little endian and every section starts on an 8 byte
+ * boundary. The query start and end remember the store and target actor of a
+ * converted input.txt file, -1 when the graph has none.
+ *
+ * The main method converts an input.txt style file into this format.
+ */
+public class BinaryGraphFile {
+    public static final int MAGIC = 0x44474231; // "DGB1" at the start of every file
+    public static final int VERSION = 1; // the layout version
+    public static final int HEADER_BYTES = 32; // the size of the header
+    private static final int BUFFER_BYTES = 1 << 16; // the size of the write buffer
+
+    // default constructor
+    private BinaryGraphFile() {
+    }
+
+    /**
+     * converts an input.txt style actor problem into a binary graph file.
+     *
+     * @param args the input file and the output file
+     * @throws IOException if a file can not be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("usage: java BinaryGraphFile <input.txt> <output.graph>");
+            return;
+        }
+        convert(new File(args[0]), new File(args[1]));
+    }
+
+    /**
+     * reads an actor problem in the input.txt format, builds its graph the same
+     * way Menu does and writes it with the store and target actor as the query.
+     *
+     * @param input  the text file
+     * @param output the binary file to write
+     * @throws IOException if a file can not be read or written
+     */
+    public static void convert(File input, File output) throws IOException {
+        ActorProblem problem = ActorProblem.read(input);
+        write(problem.toGraph(), problem.getActors(), problem.getTarget() - 1, output);
+    }
+
+    /**
+     * writes a graph without a query
+     *
+     * @param g    the graph to write
+     * @param file the file to write
+     * @throws IOException if the file can not be written
+     */
+    public static void write(CSRGraph g, File file) throws IOException {
+        write(g, -1, -1, file);
+    }
+
+    /**
+     * writes a graph and the query that comes with it
+     *
+     * @param g          the graph to write
+     * @param queryStart the starting node of the query or -1
+     * @param queryEnd   the ending node of the query or -1
+     * @param file       the file to write
+     * @throws IOException if the file can not be written
+     */
+    public static void write(CSRGraph g, int queryStart, int queryEnd, File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(g.nodes).putInt(queryStart).putInt(queryEnd).putInt(0);
+            buffer.putLong(g.targets.length);
+            for (int offset : g.offsets) {
+                flushIfFull(channel, buffer, Integer.BYTES);
+                buffer.putInt(offset);
+            }
+            pad(channel, buffer);
+            for (int target : g.targets) {
+                flushIfFull(channel, buffer, Integer.BYTES);
+                buffer.putInt(target);
+            }
+            pad(channel, buffer);
+            for (double weight : g.weights) {
+                flushIfFull(channel, buffer, Double.BYTES);
+                buffer.putDouble(weight);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * maps a binary graph file read only. The pages are shared with every other
+     * process mapping the same file.
+     *
+     * @param file the file to map
+     * @return the mapped graph
+     * @throws IOException if the file can not be read or is not a graph file
+     */
+    public static MappedGraph map(File file) throws IOException {
+        return new MappedGraph(file);
+    }
+
+    /**
+     * the byte position of the targets section
+     */
+    static long targetsPosition(int nodes) {
+        return align(HEADER_BYTES + (nodes + 1L) * Integer.BYTES);
+    }
+
+    /**
+     * the byte position of the weights section
+     */
+    static long weightsPosition(int nodes, long edges) {
+        return align(targetsPosition(nodes) + edges * Integer.BYTES);
+    }
+
+    /**
+     * rounds position up to the next multiple of 8
+     */
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    /**
+     * writes the buffer to the channel when less than bytes are left in it
+     */
+    private static void flushIfFull(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * writes zero bytes until the next value starts on an 8 byte boundary
+     */
+    private static void pad(FileChannel channel, ByteBuffer buffer) throws IOException {
+        long written = channel.position() + buffer.position();
+        for (long i = written; i < align(written); i++) {
+            flushIfFull(channel, buffer, 1);
+            buffer.put((byte) 0);
+        }
+    }
+}
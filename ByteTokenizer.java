@@ -0,0 +1,260 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads whitespace separated numbers from a channel in large blocks and parses
+ * them straight from the bytes. Unlike Scanner no String is created per token:
+ * each token is copied into one reused byte array and converted from there.
+ * Plain decimal numbers are converted exactly with long arithmetic, anything
+ * else (long mantissas, large exponents, NaN, hexadecimal) is handed to
+ * Double.parseDouble so the result always matches it.
+ */
+public class ByteTokenizer {
+    private static final int BUFFER_BYTES = 1 << 20; // bytes read from the channel at a time
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 }; // all exactly representable
+
+    // instance variables
+    private final ReadableByteChannel channel; // where the bytes come from
+    private final ByteBuffer buffer; // the block currently being tokenized
+    private byte[] token = new byte[64]; // the bytes of the current token
+    private int tokenLength; // the number of bytes in token
+    private boolean endOfInput; // true once the channel has no more bytes
+
+    /**
+     * @param channel the channel to read numbers from
+     */
+    public ByteTokenizer(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        buffer.flip(); // starts empty
+    }
+
+    /**
+     * @return true if there is another token
+     */
+    public boolean hasNext() {
+        return skipWhitespace();
+    }
+
+    /**
+     * reads the next token as an int
+     *
+     * @return the value of the token
+     * @throws NoSuchElementException if the input is exhausted
+     * @throws InputMismatchException if the token is not an int
+     */
+    public int nextInt() {
+        readToken();
+        int i = 0;
+        boolean negative = token[0] == '-';
+        if (negative || token[0] == '+') {
+            i++;
+        }
+        if (i == tokenLength) {
+            throw mismatch();
+        }
+        long value = 0;
+        for (; i < tokenLength; i++) {
+            int digit = token[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw mismatch();
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE + 1L) {
+                throw mismatch();
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw mismatch();
+        }
+        return (int) value;
+    }
+
+    /**
+     * reads the next token as a double
+     *
+     * @return the value of the token
+     * @throws NoSuchElementException if the input is exhausted
+     * @throws InputMismatchException if the token is not a number
+     */
+    public double nextDouble() {
+        readToken();
+        int i = 0;
+        boolean negative = token[0] == '-';
+        if (negative || token[0] == '+') {
+            i++;
+        }
+        long mantissa = 0; // the significant digits
+        int digits = 0; // number of significant digits in mantissa
+        int exponent = 0; // power of ten to multiply mantissa by
+        boolean anyDigit = false;
+        for (; i < tokenLength && isDigit(token[i]); i++) // integer part
+        {
+            anyDigit = true;
+            if (mantissa != 0 || token[i] != '0') {
+                mantissa = mantissa * 10 + (token[i] - '0');
+                if (++digits > 15) {
+                    return parseFallback();
+                }
+            }
+        }
+        if (i < tokenLength && token[i] == '.') // fraction part
+        {
+            for (i++; i < tokenLength && isDigit(token[i]); i++) {
+                anyDigit = true;
+                if (mantissa != 0 || token[i] != '0') {
+                    mantissa = mantissa * 10 + (token[i] - '0');
+                    if (++digits > 15) {
+                        return parseFallback();
+                    }
+                }
+                exponent--;
+            }
+        }
+        if (!anyDigit) {
+            return parseFallback();
+        }
+        if (i < tokenLength && (token[i] == 'e' || token[i] == 'E')) // exponent part
+        {
+            i++;
+            boolean negativeExponent = i < tokenLength && token[i] == '-';
+            if (i < tokenLength && (token[i] == '-' || token[i] == '+')) {
+                i++;
+            }
+            int written = 0;
+            int start = i;
+            for (; i < tokenLength && isDigit(token[i]); i++) {
+                written = written * 10 + (token[i] - '0');
+                if (written > 1000) {
+                    return parseFallback();
+                }
+            }
+            if (i == start) {
+                return parseFallback();
+            }
+            exponent += negativeExponent ? -written : written;
+        }
+        if (i != tokenLength || exponent < -22 || exponent > 22) {
+            return parseFallback();
+        }
+        // mantissa and 10^exponent are both exact doubles, so one rounding gives the
+        // correctly rounded result
+        double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * reads count doubles into an array
+     *
+     * @param values the array to fill
+     * @param from   the first index to fill
+     * @param count  the number of values to read
+     */
+    public void nextDoubles(double[] values, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            values[i] = nextDouble();
+        }
+    }
+
+    // ---------------------------Helper
+    // functions-----------------------------------
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * true for spaces, tabs, line breaks and the other control characters. The
+     * byte is taken as unsigned, so the bytes of non ASCII characters are part
+     * of a token and fail to parse instead of being skipped.
+     */
+    private static boolean isWhitespace(byte b) {
+        return (b & 0xFF) <= ' ';
+    }
+
+    /**
+     * converts the current token with Double.parseDouble
+     */
+    private double parseFallback() {
+        try {
+            return Double.parseDouble(new String(token, 0, tokenLength, StandardCharsets.ISO_8859_1));
+        } catch (NumberFormatException e) {
+            throw mismatch();
+        }
+    }
+
+    private InputMismatchException mismatch() {
+        return new InputMismatchException(
+                "not a number: " + new String(token, 0, tokenLength, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * copies the next token into token
+     */
+    private void readToken() {
+        if (!skipWhitespace()) {
+            throw new NoSuchElementException("no more tokens");
+        }
+        tokenLength = 0;
+        while (fill()) {
+            byte b = buffer.get(buffer.position());
+            if (isWhitespace(b)) {
+                return;
+            }
+            if (tokenLength == token.length) {
+                token = Arrays.copyOf(token, tokenLength * 2);
+            }
+            token[tokenLength++] = b;
+            buffer.position(buffer.position() + 1);
+        }
+    }
+
+    /**
+     * skips spaces, tabs and line breaks
+     *
+     * @return true if a token follows
+     */
+    private boolean skipWhitespace() {
+        while (fill()) {
+            if (!isWhitespace(buffer.get(buffer.position()))) {
+                return true;
+            }
+            buffer.position(buffer.position() + 1);
+        }
+        return false;
+    }
+
+    /**
+     * reads the next block from the channel when the buffer is used up
+     *
+     * @return true if at least one byte is available
+     */
+    private boolean fill() {
+        if (buffer.hasRemaining()) {
+            return true;
+        }
+        if (endOfInput) {
+            return false;
+        }
+        buffer.clear();
+        try {
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read == 0);
+            endOfInput = read < 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip();
+        return buffer.hasRemaining();
+    }
+}
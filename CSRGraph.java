@@ -0,0 +1,262 @@
+import java.util.Arrays;
+
+/**
+ * An immutable compressed sparse row (CSR) version of the directed weighted
+ * graph held by graphEdge. The outgoing edges of node u are stored
+ * contiguously in targets and weights at the positions offsets[u] up to
+ * offsets[u + 1]. Keeping the adjacency in three primitive arrays removes the
+ * per edge Edge object and the per node ArrayList so Dijkstra can relax edges
+ * with sequential array reads.
+ */
+public class CSRGraph implements NeighborGraph {
+    // instance variables
+    protected final int nodes; // number of nodes in graph
+    protected final int[] offsets; // start of the edges of each node, size nodes + 1
+    protected final int[] targets; // the nextNode of every edge grouped by starting node
+    protected final double[] weights; // the weight of every edge grouped by starting node
+    protected final WeightRange weightRange; // the range of the weights, taken when the graph is built
+
+    /**
+     * constructs a CSRGraph from already grouped arrays. Use the Builder or
+     * fromGraph to create a graph from single edges.
+     *
+     * @param n       number of nodes
+     * @param offsets start index of the edges of every node, size n + 1
+     * @param targets the ending node of every edge
+     * @param weights the weight of every edge
+     */
+    protected CSRGraph(int n, int[] offsets, int[] targets, double[] weights) {
+        if (offsets.length != n + 1 || targets.length != weights.length || offsets[n] != targets.length) {
+            throw new IllegalArgumentException("inconsistent CSR arrays");
+        }
+        nodes = n;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        weightRange = WeightRange.of(weights);
+    }
+
+    /**
+     * creates a CSRGraph holding the same edges as a graphEdge. The order of the
+     * outgoing edges of every node is kept.
+     *
+     * @param g the graph to convert
+     * @return the CSR version of g
+     */
+    public static CSRGraph fromGraph(graphEdge g) {
+        return new Builder(g.nodes).addGraph(g).build();
+    }
+
+    /**
+     * creates a CSRGraph holding the same edges as any NeighborGraph.
+     *
+     * @param g the graph to convert
+     * @return the CSR version of g
+     */
+    public static CSRGraph fromNeighbors(NeighborGraph g) {
+        return new Builder(g.size()).addGraph(g).build();
+    }
+
+    /**
+     * @return the number of nodes in the graph
+     */
+    @Override
+    public int size() {
+        return nodes;
+    }
+
+    /**
+     * @return the number of edges in the graph
+     */
+    @Override
+    public long edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * @return a cursor reading the edges straight from the arrays
+     */
+    @Override
+    public EdgeCursor cursor() {
+        return new EdgeCursor() {
+            private int edge; // the current edge
+            private int last; // the end of the edges of the current node
+
+            @Override
+            public void reset(int node) {
+                edge = offsets[node] - 1;
+                last = offsets[node + 1];
+            }
+
+            @Override
+            public boolean next() {
+                return ++edge < last;
+            }
+
+            @Override
+            public int target() {
+                return targets[edge];
+            }
+
+            @Override
+            public double weight() {
+                return weights[edge];
+            }
+        };
+    }
+
+    /**
+     * @return the range of the edge weights
+     */
+    @Override
+    public WeightRange getWeightRange() {
+        return weightRange;
+    }
+
+    /**
+     * @param node the starting node
+     * @return the number of edges leaving node
+     */
+    public int outDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * creates the reverse of this graph where every edge u to v becomes an edge v
+     * to u with the same weight. Searching the reverse graph from a node finds
+     * the shortest paths that end at that node.
+     *
+     * @return the reversed graph
+     */
+    public CSRGraph reverse() {
+        int[] reverseOffsets = new int[nodes + 1];
+        for (int e = 0; e < targets.length; e++) // count the incoming edges of every node
+        {
+            reverseOffsets[targets[e] + 1]++;
+        }
+        for (int u = 0; u < nodes; u++) {
+            reverseOffsets[u + 1] += reverseOffsets[u];
+        }
+        int[] next = Arrays.copyOf(reverseOffsets, nodes); // next free slot of every node
+        int[] reverseTargets = new int[targets.length];
+        double[] reverseWeights = new double[targets.length];
+        for (int u = 0; u < nodes; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int slot = next[targets[e]]++;
+                reverseTargets[slot] = u;
+                reverseWeights[slot] = weights[e];
+            }
+        }
+        return new CSRGraph(nodes, reverseOffsets, reverseTargets, reverseWeights);
+    }
+
+    // -------------------nested builder class--------------------------------------
+
+    /**
+     * Collects edges in growable primitive arrays and groups them by starting node
+     * with a counting sort when build is called.
+     */
+    public static class Builder {
+        // instance variables
+        private final int nodes; // number of nodes in the graph being built
+        private int edges; // number of edges added so far
+        private int[] sources = new int[16]; // the starting node of every added edge
+        private int[] targets = new int[16]; // the ending node of every added edge
+        private double[] weights = new double[16]; // the weight of every added edge
+
+        /**
+         * @param n the number of nodes of the graph
+         */
+        public Builder(int n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("n < 0");
+            }
+            nodes = n;
+        }
+
+        /**
+         * adds a new weighted directed edge
+         *
+         * @param startNode the starting node
+         * @param nextNode  the ending node
+         * @param weight    the weight of the edge
+         * @return this builder
+         */
+        public Builder addEdge(int startNode, int nextNode, double weight) {
+            if (startNode < 0 || startNode >= nodes || nextNode < 0 || nextNode >= nodes) {
+                throw new IllegalArgumentException("Invalid node index");
+            }
+            if (edges == sources.length) // grow the arrays when full
+            {
+                int capacity = edges * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            sources[edges] = startNode;
+            targets[edges] = nextNode;
+            weights[edges] = weight;
+            edges++;
+            return this;
+        }
+
+        /**
+         * adds every edge of a graphEdge
+         *
+         * @param g the graph to copy the edges from
+         * @return this builder
+         */
+        public Builder addGraph(graphEdge g) {
+            for (int u = 0; u < g.graph.size(); u++) // for every node of g
+            {
+                for (Edge edge : g.graph.get(u)) {
+                    addEdge(u, edge.nextNode, edge.weight);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * adds every edge of a NeighborGraph
+         *
+         * @param g the graph to copy the edges from
+         * @return this builder
+         */
+        public Builder addGraph(NeighborGraph g) {
+            NeighborGraph.EdgeCursor cursor = g.cursor();
+            for (int u = 0; u < g.size(); u++) {
+                for (cursor.reset(u); cursor.next();) {
+                    addEdge(u, cursor.target(), cursor.weight());
+                }
+            }
+            return this;
+        }
+
+        /**
+         * groups the added edges by starting node. Edges keep the order in which they
+         * were added.
+         *
+         * @return the new immutable graph
+         */
+        public CSRGraph build() {
+            int[] offsets = new int[nodes + 1];
+            for (int i = 0; i < edges; i++) // count the edges of every node
+            {
+                offsets[sources[i] + 1]++;
+            }
+            for (int u = 0; u < nodes; u++) // prefix sum turns the counts into start indexes
+            {
+                offsets[u + 1] += offsets[u];
+            }
+            int[] next = Arrays.copyOf(offsets, nodes); // next free slot of every node
+            int[] csrTargets = new int[edges];
+            double[] csrWeights = new double[edges];
+            for (int i = 0; i < edges; i++) {
+                int slot = next[sources[i]]++;
+                csrTargets[slot] = targets[i];
+                csrWeights[slot] = weights[i];
+            }
+            return new CSRGraph(nodes, offsets, csrTargets, csrWeights);
+        }
+    }
+}
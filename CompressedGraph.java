@@ -0,0 +1,344 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A read only graph that keeps its adjacency in one byte array. The outgoing
+ * edges of every node are sorted by target and each target is stored as the
+ * variable length difference to the target before it, seven bits per byte, so
+ * nearby targets take a byte or two instead of four. The weight of every edge
+ * follows its target in one of the encodings of Weights:
+ *
+ * <pre>
+ * DOUBLE     8 bytes, exact
+ * FLOAT      4 bytes, about 7 significant digits
+ * QUANTIZED  the weight rounded to a multiple of twice the error bound, as a
+ *            variable length integer; every weight is off by at most the bound
+ * </pre>
+ *
+ * The cursor decodes the edges of a node while Dijkstra relaxes them, so the
+ * graph is never expanded in memory. With FLOAT or QUANTIZED weights a path
+ * weight is off by at most the error of one edge times the edges on the path.
+ */
+public class CompressedGraph implements NeighborGraph {
+    private static final VarHandle FLOAT = MethodHandles.byteArrayViewVarHandle(float[].class,
+            ByteOrder.LITTLE_ENDIAN); // reads a float at any byte position
+    private static final VarHandle DOUBLE = MethodHandles.byteArrayViewVarHandle(double[].class,
+            ByteOrder.LITTLE_ENDIAN); // reads a double at any byte position
+
+    /**
+     * the ways an edge weight can be stored
+     */
+    public enum Weights {
+        DOUBLE, FLOAT, QUANTIZED
+    }
+
+    // instance variables
+    private final int nodes; // number of nodes in graph
+    private final long edges; // number of edges in graph
+    private final int[] offsets; // the first byte of the edges of every node, size nodes + 1
+    private final byte[] data; // the encoded edges grouped by starting node
+    private final Weights encoding; // how the weights are stored
+    private final double step; // the weight of one quantized unit, 0 for the other encodings
+    private final WeightRange weightRange; // the range of the decoded weights
+
+    /**
+     * the graph an Encoder filled
+     */
+    private CompressedGraph(Encoder encoder) {
+        nodes = encoder.nodes;
+        edges = encoder.edges;
+        offsets = encoder.offsets;
+        data = Arrays.copyOf(encoder.data, encoder.size);
+        encoding = encoder.encoding;
+        step = encoder.step;
+        weightRange = encoder.weightRange;
+    }
+
+    /**
+     * compresses a graphEdge without losing any weight
+     *
+     * @param g the graph to compress
+     * @return the compressed graph
+     */
+    public static CompressedGraph fromGraph(graphEdge g) {
+        return fromGraph(g, Weights.DOUBLE, 0.0);
+    }
+
+    /**
+     * compresses a graphEdge
+     *
+     * @param g        the graph to compress
+     * @param weights  how the weights are stored
+     * @param maxError the largest error of a QUANTIZED weight, ignored by the
+     *                 other encodings
+     * @return the compressed graph
+     */
+    public static CompressedGraph fromGraph(graphEdge g, Weights weights, double maxError) {
+        Encoder encoder = new Encoder(g.nodes, weights, maxError);
+        for (int u = 0; u < g.nodes; u++) {
+            for (Edge edge : g.graph.get(u)) {
+                encoder.add(edge.nextNode, edge.weight);
+            }
+            encoder.endNode();
+        }
+        return new CompressedGraph(encoder);
+    }
+
+    /**
+     * compresses any NeighborGraph
+     *
+     * @param g        the graph to compress
+     * @param weights  how the weights are stored
+     * @param maxError the largest error of a QUANTIZED weight, ignored by the
+     *                 other encodings
+     * @return the compressed graph
+     */
+    public static CompressedGraph fromNeighbors(NeighborGraph g, Weights weights, double maxError) {
+        Encoder encoder = new Encoder(g.size(), weights, maxError);
+        NeighborGraph.EdgeCursor cursor = g.cursor();
+        for (int u = 0; u < g.size(); u++) {
+            for (cursor.reset(u); cursor.next();) {
+                encoder.add(cursor.target(), cursor.weight());
+            }
+            encoder.endNode();
+        }
+        return new CompressedGraph(encoder);
+    }
+
+    /**
+     * @return the number of nodes in the graph
+     */
+    @Override
+    public int size() {
+        return nodes;
+    }
+
+    /**
+     * @return the number of edges in the graph
+     */
+    @Override
+    public long edgeCount() {
+        return edges;
+    }
+
+    /**
+     * @return the range of the weights as the cursor returns them
+     */
+    @Override
+    public WeightRange getWeightRange() {
+        return weightRange;
+    }
+
+    /**
+     * @return how the weights are stored
+     */
+    public Weights getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * @return the bytes of the offsets and the encoded edges
+     */
+    public long byteSize() {
+        return (long) offsets.length * Integer.BYTES + data.length;
+    }
+
+    /**
+     * @return a cursor decoding the edges of one node at a time
+     */
+    @Override
+    public EdgeCursor cursor() {
+        return new EdgeCursor() {
+            private int position; // the byte of the next edge
+            private int end; // the first byte after the edges of the current node
+            private int target; // the target of the current edge
+            private double weight; // the weight of the current edge
+
+            @Override
+            public void reset(int node) {
+                position = offsets[node];
+                end = offsets[node + 1];
+                target = 0; // the first target is stored as its difference to 0
+            }
+
+            @Override
+            public boolean next() {
+                if (position >= end) {
+                    return false;
+                }
+                int b = data[position++];
+                int delta = b & 0x7F;
+                for (int shift = 7; b < 0; shift += 7) // the high bit marks another byte
+                {
+                    b = data[position++];
+                    delta |= (b & 0x7F) << shift;
+                }
+                target += delta;
+                switch (encoding) {
+                case DOUBLE:
+                    weight = (double) DOUBLE.get(data, position);
+                    position += Double.BYTES;
+                    break;
+                case FLOAT:
+                    weight = (float) FLOAT.get(data, position);
+                    position += Float.BYTES;
+                    break;
+                default:
+                    weight = readQuantized() * step;
+                }
+                return true;
+            }
+
+            @Override
+            public int target() {
+                return target;
+            }
+
+            @Override
+            public double weight() {
+                return weight;
+            }
+
+            /**
+             * reads a zigzag encoded variable length long
+             */
+            private long readQuantized() {
+                long b = data[position++];
+                long value = b & 0x7F;
+                for (int shift = 7; b < 0; shift += 7) {
+                    b = data[position++];
+                    value |= (b & 0x7F) << shift;
+                }
+                return (value >>> 1) ^ -(value & 1);
+            }
+        };
+    }
+
+    // -------------------nested classes--------------------------------------------
+
+    /**
+     * encodes the edges node by node into a growing byte array. The edges of a
+     * node are collected, sorted by target and written when the node ends.
+     */
+    private static final class Encoder {
+        private final int nodes; // number of nodes in the graph
+        private final Weights encoding; // how the weights are stored
+        private final double step; // the weight of one quantized unit
+        private final int[] offsets; // the first byte of the edges of every node
+        private final WeightRange weightRange = new WeightRange(); // the decoded weights
+        private byte[] data = new byte[64]; // the encoded edges
+        private int size; // the bytes used in data
+        private long edges; // the number of edges encoded
+        private int node; // the node whose edges are collected
+        private long[] order = new long[16]; // target and index of every edge of the node, sorted by target
+        private double[] weights = new double[16]; // the weights of the edges of the node
+        private int degree; // the number of edges of the node
+
+        private Encoder(int n, Weights encoding, double maxError) {
+            if (n < 0) {
+                throw new IllegalArgumentException("n < 0");
+            }
+            if (encoding == Weights.QUANTIZED && !(maxError > 0.0 && maxError < Double.POSITIVE_INFINITY)) {
+                throw new IllegalArgumentException("the error bound must be positive; received: " + maxError);
+            }
+            nodes = n;
+            this.encoding = encoding;
+            step = encoding == Weights.QUANTIZED ? 2.0 * maxError : 0.0;
+            offsets = new int[n + 1];
+        }
+
+        /**
+         * collects an edge of the current node
+         */
+        private void add(int target, double weight) {
+            if (target < 0 || target >= nodes) {
+                throw new IllegalArgumentException("Invalid node index");
+            }
+            if (degree == order.length) // grow the node arrays when full
+            {
+                order = Arrays.copyOf(order, degree * 2);
+                weights = Arrays.copyOf(weights, degree * 2);
+            }
+            order[degree] = (long) target << 32 | degree;
+            weights[degree] = weight;
+            degree++;
+        }
+
+        /**
+         * sorts and writes the edges of the current node and moves to the next one
+         */
+        private void endNode() {
+            Arrays.sort(order, 0, degree);
+            int previous = 0;
+            for (int i = 0; i < degree; i++) {
+                int target = (int) (order[i] >>> 32);
+                double weight = weights[(int) order[i]];
+                ensure(5 + 10); // the longest target and weight
+                putVarLong(target - previous);
+                previous = target;
+                putWeight(weight);
+            }
+            edges += degree;
+            degree = 0;
+            node++;
+            offsets[node] = size;
+        }
+
+        /**
+         * writes a weight in the encoding of the graph and adds the weight the cursor
+         * will return to the range
+         */
+        private void putWeight(double weight) {
+            switch (encoding) {
+            case DOUBLE:
+                DOUBLE.set(data, size, weight);
+                size += Double.BYTES;
+                weightRange.add(weight);
+                break;
+            case FLOAT:
+                FLOAT.set(data, size, (float) weight);
+                size += Float.BYTES;
+                weightRange.add((float) weight);
+                break;
+            default:
+                double units = Math.rint(weight / step);
+                if (!(Math.abs(units) < 0x1p62)) // NaN, infinite or too fine a step
+                {
+                    throw new IllegalArgumentException("weight can not be quantized; received: " + weight);
+                }
+                long q = (long) units;
+                putVarLong(q << 1 ^ q >> 63); // zigzag, small negative values stay short
+                weightRange.add(q * step);
+            }
+        }
+
+        /**
+         * writes a non negative long seven bits at a time, low bits first
+         */
+        private void putVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                data[size++] = (byte) (value | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        /**
+         * makes room for bytes more bytes
+         */
+        private void ensure(int bytes) {
+            if (size + bytes > data.length) {
+                long capacity = Math.max((long) data.length * 2, (long) size + bytes);
+                if (capacity > Integer.MAX_VALUE - 8) {
+                    if ((long) size + bytes > Integer.MAX_VALUE - 8) {
+                        throw new IllegalArgumentException("compressed graph exceeds 2GB");
+                    }
+                    capacity = Integer.MAX_VALUE - 8;
+                }
+                data = Arrays.copyOf(data, (int) capacity);
+            }
+        }
+    }
+}
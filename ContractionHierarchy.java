@@ -0,0 +1,756 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A contraction hierarchy of a directed weighted graph. Preprocessing removes
+ * (contracts) the nodes one at a time from the least to the most important and
+ * adds a shortcut edge u to w through a contracted node v whenever u to v to w
+ * was the only shortest path between u and w. A query then only has to search
+ * upward in the hierarchy: forward from the start node over edges to more
+ * important nodes and backward from the end node the same way. The two searches
+ * meet at the most important node of the shortest path and only visit a small
+ * number of nodes.
+ *
+ * Every edge remembers the node it skips over (-1 for original edges) so the
+ * path can be unpacked back into nodes of the original graph.
+ */
+public class ContractionHierarchy {
+    private static final int FILE_MAGIC = 0x43484731; // "CHG1" at the start of a saved hierarchy
+    private static final int WITNESS_SETTLE_LIMIT = 50; // nodes a witness search may visit before giving up
+
+    // instance variables
+    private final int nodes; // number of nodes in graph
+    private final int[] rank; // the contraction order of every node, higher is more important
+    private final int[] upOffsets; // start of the upward edges of every node
+    private final int[] upTargets; // the more important node each upward edge goes to
+    private final double[] upWeights; // the weight of every upward edge
+    private final int[] upMiddle; // the node an upward shortcut skips, -1 for original edges
+    private final int[] downOffsets; // start of the reversed downward edges of every node
+    private final int[] downTargets; // the more important node each downward edge comes from
+    private final double[] downWeights; // the weight of every downward edge
+    private final int[] downMiddle; // the node a downward shortcut skips, -1 for original edges
+
+    /**
+     * constructs a hierarchy from its arrays, used by build and load.
+     */
+    private ContractionHierarchy(int n, int[] rank, int[] upOffsets, int[] upTargets, double[] upWeights,
+            int[] upMiddle, int[] downOffsets, int[] downTargets, double[] downWeights, int[] downMiddle) {
+        nodes = n;
+        this.rank = rank;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upMiddle = upMiddle;
+        this.downOffsets = downOffsets;
+        this.downTargets = downTargets;
+        this.downWeights = downWeights;
+        this.downMiddle = downMiddle;
+    }
+
+    // -------------------nested arc class------------------------------------------
+
+    /**
+     * an edge of the graph while it is being contracted. The same object is kept
+     * in the outgoing list of from and the incoming list of to so updating the
+     * weight of a shortcut updates both lists. It knows its position in both
+     * lists so it can be removed without searching them.
+     */
+    private static class Arc {
+        final int from; // the starting node
+        final int to; // the ending node
+        double weight; // the weight of the edge
+        int middle; // the contracted node this shortcut skips, -1 for original edges
+        int outIndex; // the position of the arc in the outgoing list of from
+        int inIndex; // the position of the arc in the incoming list of to
+
+        Arc(int from, int to, double weight, int middle) {
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.middle = middle;
+        }
+    }
+
+    // --------------end of nested class--------------------------------------------
+
+    /**
+     * builds the hierarchy of a graphEdge.
+     *
+     * @param g the graph to preprocess
+     * @return the contraction hierarchy
+     */
+    public static ContractionHierarchy build(graphEdge g) {
+        return build(CSRGraph.fromGraph(g));
+    }
+
+    /**
+     * builds the hierarchy of a graph. Nodes are contracted in order of their edge
+     * difference (shortcuts added minus edges removed) plus the number of already
+     * contracted neighbors, which keeps the hierarchy flat and the number of
+     * shortcuts small.
+     *
+     * The nodes are contracted in rounds. A round takes every node whose priority
+     * is lower than that of all its remaining neighbors, so no two nodes of a
+     * round share an arc. Their witness searches avoid every node of the round,
+     * so the shortcuts of one node never rely on a path through another, and are
+     * run in parallel. The shortcuts are then added and the arcs removed in the
+     * order of the nodes, so the hierarchy does not depend on the number of
+     * threads. Only the neighbors of contracted nodes get a new priority, again
+     * in parallel.
+     *
+     * @param g the graph to preprocess
+     * @return the contraction hierarchy
+     */
+    public static ContractionHierarchy build(CSRGraph g) {
+        final int n = g.size();
+        List<Arc> arcs = new ArrayList<>(); // every arc and shortcut, they all end up in the hierarchy
+        List<List<Arc>> out = new ArrayList<>(n); // outgoing arcs of every node not contracted yet
+        List<List<Arc>> in = new ArrayList<>(n); // incoming arcs of every node not contracted yet
+        for (int i = 0; i < n; i++) {
+            out.add(new ArrayList<>());
+            in.add(new ArrayList<>());
+        }
+        for (int u = 0; u < n; u++) {
+            for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+                addArc(arcs, out, in, u, g.targets[e], g.weights[e], -1);
+            }
+        }
+
+        boolean[] contracted = new boolean[n];
+        int[] contractedNeighbors = new int[n]; // number of neighbors already contracted
+        int[] rank = new int[n];
+        double[] priority = new double[n];
+        int[] remaining = IntStream.range(0, n).toArray(); // the nodes not contracted yet
+        updatePriorities(remaining, priority, out, in, contracted, contractedNeighbors);
+        boolean[] stale = new boolean[n]; // true once a neighbor was contracted after the priority was computed
+        boolean[] listed = new boolean[n]; // marks the candidates of a round while they are collected
+        int nextRank = 0;
+        while (remaining.length > 0) {
+            int[] round = localMinima(remaining, priority, out, in);
+            while (true) // only the nodes about to be contracted get a new priority
+            {
+                int[] outdated = Arrays.stream(round).filter(v -> stale[v]).toArray();
+                if (outdated.length == 0) {
+                    break;
+                }
+                for (int v : outdated) {
+                    stale[v] = false;
+                }
+                updatePriorities(outdated, priority, out, in, contracted, contractedNeighbors);
+                // only the new priorities and their neighbors can change which nodes are minima
+                round = localMinima(candidates(round, outdated, out, in, listed), priority, out, in);
+            }
+            for (int v : round) // the witness searches of the round avoid all of it
+            {
+                contracted[v] = true;
+            }
+            List<List<Arc>> found = Arrays.stream(round).parallel().mapToObj(v -> shortcuts(v, out, in, contracted))
+                    .collect(Collectors.toList()); // the shortcuts of every node of the round
+            for (int i = 0; i < round.length; i++) {
+                int v = round[i];
+                rank[v] = nextRank++;
+                for (Arc shortcut : found.get(i)) {
+                    addArc(arcs, out, in, shortcut.from, shortcut.to, shortcut.weight, v);
+                }
+                for (Arc arc : out.get(v)) // v leaves the remaining graph
+                {
+                    removeIncoming(in.get(arc.to), arc);
+                    contractedNeighbors[arc.to]++;
+                    stale[arc.to] = true;
+                }
+                for (Arc arc : in.get(v)) {
+                    removeOutgoing(out.get(arc.from), arc);
+                    contractedNeighbors[arc.from]++;
+                    stale[arc.from] = true;
+                }
+                out.set(v, null);
+                in.set(v, null);
+            }
+            remaining = Arrays.stream(remaining).filter(v -> !contracted[v]).toArray();
+        }
+        return fromArcs(n, rank, arcs);
+    }
+
+    /**
+     * adds an arc or lowers the weight of an existing arc between the same nodes.
+     * Self loops are never part of a shortest path and are dropped.
+     */
+    private static void addArc(List<Arc> arcs, List<List<Arc>> out, List<List<Arc>> in, int from, int to, double weight,
+            int middle) {
+        if (from == to) {
+            return;
+        }
+        for (Arc arc : out.get(from)) {
+            if (arc.to == to) // keep only the lighter of parallel edges
+            {
+                if (weight < arc.weight) {
+                    arc.weight = weight;
+                    arc.middle = middle;
+                }
+                return;
+            }
+        }
+        Arc arc = new Arc(from, to, weight, middle);
+        arcs.add(arc);
+        arc.outIndex = out.get(from).size();
+        out.get(from).add(arc);
+        arc.inIndex = in.get(to).size();
+        in.get(to).add(arc);
+    }
+
+    /**
+     * removes an arc from the outgoing list of its start by moving the last arc
+     * of the list into its place, so a hub loses its arcs in constant time each
+     */
+    private static void removeOutgoing(List<Arc> list, Arc arc) {
+        Arc last = list.remove(list.size() - 1);
+        if (last != arc) {
+            list.set(arc.outIndex, last);
+            last.outIndex = arc.outIndex;
+        }
+    }
+
+    /**
+     * removes an arc from the incoming list of its end, the same way
+     */
+    private static void removeIncoming(List<Arc> list, Arc arc) {
+        Arc last = list.remove(list.size() - 1);
+        if (last != arc) {
+            list.set(arc.inIndex, last);
+            last.inIndex = arc.inIndex;
+        }
+    }
+
+    /**
+     * recomputes the priority of every node of nodes in parallel; the priorities
+     * only read the graph
+     */
+    private static void updatePriorities(int[] nodes, double[] priority, List<List<Arc>> out, List<List<Arc>> in,
+            boolean[] contracted, int[] contractedNeighbors) {
+        Arrays.stream(nodes).parallel()
+                .forEach(v -> priority[v] = priority(v, out, in, contracted, contractedNeighbors));
+    }
+
+    /**
+     * the nodes of nodes that come before all their remaining neighbors, found in
+     * parallel and kept in the order of nodes
+     */
+    private static int[] localMinima(int[] nodes, double[] priority, List<List<Arc>> out, List<List<Arc>> in) {
+        return Arrays.stream(nodes).parallel().filter(v -> isLocalMinimum(v, priority, out, in)).toArray();
+    }
+
+    /**
+     * the nodes of round followed by every remaining neighbor of the nodes whose
+     * priority changed, each once
+     */
+    private static int[] candidates(int[] round, int[] changed, List<List<Arc>> out, List<List<Arc>> in,
+            boolean[] listed) {
+        IntStream.Builder candidates = IntStream.builder();
+        for (int v : round) {
+            listed[v] = true;
+            candidates.add(v);
+        }
+        for (int v : changed) {
+            for (Arc arc : out.get(v)) {
+                if (!listed[arc.to]) {
+                    listed[arc.to] = true;
+                    candidates.add(arc.to);
+                }
+            }
+            for (Arc arc : in.get(v)) {
+                if (!listed[arc.from]) {
+                    listed[arc.from] = true;
+                    candidates.add(arc.from);
+                }
+            }
+        }
+        int[] result = candidates.build().toArray();
+        for (int v : result) {
+            listed[v] = false;
+        }
+        return result;
+    }
+
+    /**
+     * true if v comes before every remaining neighbor, by priority and then by a
+     * scrambled node index so ties do not favor low indices
+     */
+    private static boolean isLocalMinimum(int v, double[] priority, List<List<Arc>> out, List<List<Arc>> in) {
+        for (Arc arc : out.get(v)) {
+            if (before(arc.to, v, priority)) {
+                return false;
+            }
+        }
+        for (Arc arc : in.get(v)) {
+            if (before(arc.from, v, priority)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * true if a is contracted before b
+     */
+    private static boolean before(int a, int b, double[] priority) {
+        if (priority[a] != priority[b]) {
+            return priority[a] < priority[b];
+        }
+        return Integer.compareUnsigned(a * 0x9E3779B9, b * 0x9E3779B9) < 0; // a bijection, so never equal
+    }
+
+    /**
+     * the contraction priority of v: edge difference plus contracted neighbors.
+     */
+    private static double priority(int v, List<List<Arc>> out, List<List<Arc>> in, boolean[] contracted,
+            int[] contractedNeighbors) {
+        int removed = 0;
+        for (Arc arc : out.get(v)) {
+            if (!contracted[arc.to]) {
+                removed++;
+            }
+        }
+        for (Arc arc : in.get(v)) {
+            if (!contracted[arc.from]) {
+                removed++;
+            }
+        }
+        int shortcuts = contract(v, null, out, in, contracted);
+        return shortcuts - removed + contractedNeighbors[v];
+    }
+
+    /**
+     * @return the shortcuts contracting v adds, not linked into the graph yet
+     */
+    private static List<Arc> shortcuts(int v, List<List<Arc>> out, List<List<Arc>> in, boolean[] contracted) {
+        List<Arc> shortcuts = new ArrayList<>();
+        contract(v, shortcuts, out, in, contracted);
+        return shortcuts;
+    }
+
+    /**
+     * finds the shortcuts needed to contract v. For every remaining incoming
+     * neighbor u a witness search looks for a path to the outgoing neighbors that
+     * avoids v. A shortcut u to w is needed if no such path is at most as short
+     * as u to v to w. Only reads the graph, so it can run for several nodes at
+     * once.
+     *
+     * @param shortcuts the list to add the shortcuts to, null to only count them
+     * @return the number of shortcuts
+     */
+    private static int contract(int v, List<Arc> shortcuts, List<List<Arc>> out, List<List<Arc>> in,
+            boolean[] contracted) {
+        List<Arc> outgoing = new ArrayList<>();
+        double maxOut = 0.0;
+        for (Arc arc : out.get(v)) {
+            if (!contracted[arc.to]) {
+                outgoing.add(arc);
+                maxOut = Math.max(maxOut, arc.weight);
+            }
+        }
+        List<Arc> incoming = new ArrayList<>();
+        for (Arc arc : in.get(v)) {
+            if (!contracted[arc.from]) {
+                incoming.add(arc);
+            }
+        }
+        int count = 0;
+        QueryWorkspace workspace = QueryWorkspace.forThread(contracted.length, 0);
+        QueryWorkspace targets = QueryWorkspace.forThread(contracted.length, 1); // marks the outgoing neighbors
+        targets.begin();
+        for (Arc second : outgoing) {
+            targets.visit(second.to);
+        }
+        for (Arc first : incoming) {
+            int u = first.from;
+            witnessSearch(u, v, first.weight + maxOut, outgoing.size(), targets, out, contracted, workspace);
+            for (Arc second : outgoing) {
+                int w = second.to;
+                if (w == u) {
+                    continue;
+                }
+                double through = first.weight + second.weight;
+                if (workspace.distance(w) > through) // no witness, the path through v is needed
+                {
+                    count++;
+                    if (shortcuts != null) {
+                        shortcuts.add(new Arc(u, w, through, v));
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * a Dijkstra search from u over the nodes not contracted yet, skipping v. It
+     * stops once every node marked in targets is visited, at distance limit or
+     * after WITNESS_SETTLE_LIMIT nodes; nodes it did
+     * not reach keep a distance of infinity which at worst adds a shortcut that was
+     * not needed.
+     */
+    private static void witnessSearch(int u, int v, double limit, int targetCount, QueryWorkspace targets,
+            List<List<Arc>> out, boolean[] contracted, QueryWorkspace workspace) {
+        workspace.begin();
+        MinIndexedDoubleDHeap heap = workspace.heap();
+        heap.insert(u, 0.0);
+        workspace.setDistance(u, 0.0, -1);
+        int settled = 0;
+        while (!heap.isEmpty() && settled++ < WITNESS_SETTLE_LIMIT) {
+            int nodeId = heap.minKeyIndex();
+            double minValue = heap.removeMinValue();
+            workspace.visit(nodeId);
+            if (minValue > limit || (targets.isVisited(nodeId) && --targetCount == 0)) // nothing left to find
+            {
+                return;
+            }
+            for (Arc arc : out.get(nodeId)) {
+                int next = arc.to;
+                if (next == v || contracted[next] || workspace.isVisited(next)) {
+                    continue;
+                }
+                double newDistance = minValue + arc.weight;
+                if (newDistance > limit) // too long to be a witness, never queued
+                {
+                    continue;
+                }
+                if (newDistance < workspace.distance(next)) {
+                    workspace.setDistance(next, newDistance, nodeId);
+                    if (!heap.contains(next)) {
+                        heap.insert(next, newDistance);
+                    } else {
+                        heap.decrease(next, newDistance);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * splits all arcs into upward edges stored at their start and downward edges
+     * stored reversed at their end, both grouped by node.
+     */
+    private static ContractionHierarchy fromArcs(int n, int[] rank, List<Arc> arcs) {
+        int[] upOffsets = new int[n + 1];
+        int[] downOffsets = new int[n + 1];
+        for (Arc arc : arcs) {
+            if (rank[arc.from] < rank[arc.to]) {
+                upOffsets[arc.from + 1]++;
+            } else {
+                downOffsets[arc.to + 1]++;
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            upOffsets[u + 1] += upOffsets[u];
+            downOffsets[u + 1] += downOffsets[u];
+        }
+        int[] upNext = Arrays.copyOf(upOffsets, n);
+        int[] downNext = Arrays.copyOf(downOffsets, n);
+        int[] upTargets = new int[upOffsets[n]];
+        double[] upWeights = new double[upOffsets[n]];
+        int[] upMiddle = new int[upOffsets[n]];
+        int[] downTargets = new int[downOffsets[n]];
+        double[] downWeights = new double[downOffsets[n]];
+        int[] downMiddle = new int[downOffsets[n]];
+        for (Arc arc : arcs) {
+            if (rank[arc.from] < rank[arc.to]) {
+                int slot = upNext[arc.from]++;
+                upTargets[slot] = arc.to;
+                upWeights[slot] = arc.weight;
+                upMiddle[slot] = arc.middle;
+            } else {
+                int slot = downNext[arc.to]++;
+                downTargets[slot] = arc.from;
+                downWeights[slot] = arc.weight;
+                downMiddle[slot] = arc.middle;
+            }
+        }
+        return new ContractionHierarchy(n, rank, upOffsets, upTargets, upWeights, upMiddle, downOffsets,
+                downTargets, downWeights, downMiddle);
+    }
+
+    /**
+     * @return the number of nodes in the graph
+     */
+    public int size() {
+        return nodes;
+    }
+
+    /**
+     * @return the number of upward and downward edges including shortcuts
+     */
+    public int edgeCount() {
+        return upTargets.length + downTargets.length;
+    }
+
+    /**
+     * the weight of the shortest path from start to end.
+     *
+     * @param start the starting node
+     * @param end   the ending node
+     * @return the weight of the shortest path, positive infinity if there is none
+     */
+    public double distance(int start, int end) {
+        return query(start, end, null);
+    }
+
+    /**
+     * the shortest path from start to end as nodes of the original graph.
+     *
+     * @param start the starting node
+     * @param end   the ending node
+     * @return the nodes of the path including start and end, empty if there is no
+     *         path
+     */
+    public int[] path(int start, int end) {
+        int[] prev = new int[nodes];
+        if (query(start, end, prev) == Double.POSITIVE_INFINITY) {
+            return new int[0];
+        }
+        int length = 1;
+        for (int at = end; at != start; at = prev[at]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int at = end;
+        for (int i = length - 1; i > 0; i--) // walk back from end
+        {
+            path[i] = at;
+            at = prev[at];
+        }
+        path[0] = start;
+        return path;
+    }
+
+    /**
+     * runs the upward searches from start and end. Each side stops once its
+     * smallest heap value is not less than the best path found, since every
+     * further node would only give longer paths.
+     *
+     * @param start    the starting node
+     * @param end      the ending node
+     * @param previous if not null the unpacked path is written into it so that
+     *                 previous[v] is the node before v for every v on the path
+     * @return the weight of the shortest path
+     */
+    public double query(int start, int end, int[] previous) {
+        if (start < 0 || start >= nodes || end < 0 || end >= nodes) {
+            throw new IllegalArgumentException("Invalid node index");
+        }
+        QueryWorkspace forward = QueryWorkspace.forThread(nodes, 0);
+        QueryWorkspace backward = QueryWorkspace.forThread(nodes, 1);
+        forward.begin();
+        backward.begin();
+        forward.heap().insert(start, 0.0);
+        forward.setDistance(start, 0.0, -1);
+        backward.heap().insert(end, 0.0);
+        backward.setDistance(end, 0.0, -1);
+        double best = Double.POSITIVE_INFINITY;
+        int meet = -1;
+        boolean forwardTurn = true;
+        while (true) {
+            boolean forwardOpen = !forward.heap().isEmpty() && forward.heap().minValue() < best;
+            boolean backwardOpen = !backward.heap().isEmpty() && backward.heap().minValue() < best;
+            if (!forwardOpen && !backwardOpen) {
+                break;
+            }
+            boolean isForward = forwardOpen && (forwardTurn || !backwardOpen);
+            forwardTurn = !forwardTurn;
+            QueryWorkspace side = isForward ? forward : backward;
+            QueryWorkspace other = isForward ? backward : forward;
+            int[] offsets = isForward ? upOffsets : downOffsets;
+            int[] targets = isForward ? upTargets : downTargets;
+            double[] weights = isForward ? upWeights : downWeights;
+
+            int nodeId = side.heap().minKeyIndex();
+            double minValue = side.heap().removeMinValue();
+            side.visit(nodeId);
+            double through = minValue + other.distance(nodeId); // a path meeting at nodeId
+            if (through < best) {
+                best = through;
+                meet = nodeId;
+            }
+            for (int e = offsets[nodeId], last = offsets[nodeId + 1]; e < last; e++) {
+                int next = targets[e];
+                double newDistance = minValue + weights[e];
+                if (newDistance < side.distance(next)) {
+                    side.setDistance(next, newDistance, nodeId);
+                    if (!side.heap().contains(next)) {
+                        side.heap().insert(next, newDistance);
+                    } else {
+                        side.heap().decrease(next, newDistance);
+                    }
+                }
+            }
+        }
+        if (meet != -1 && previous != null) {
+            unpack(start, end, meet, forward, backward, previous);
+        }
+        return best;
+    }
+
+    /**
+     * writes the original nodes of the path through meet into previous. The
+     * hierarchy path is collected from both searches and every shortcut on it is
+     * replaced by the two edges it skips until only original edges are left.
+     */
+    private void unpack(int start, int end, int meet, QueryWorkspace forward, QueryWorkspace backward,
+            int[] previous) {
+        int[] hierarchyPath = new int[16];
+        int length = 0;
+        for (int at = meet; at != start; at = forward.previous(at)) // meet back to start
+        {
+            hierarchyPath = ensure(hierarchyPath, length);
+            hierarchyPath[length++] = at;
+        }
+        hierarchyPath = ensure(hierarchyPath, length);
+        hierarchyPath[length++] = start;
+        for (int i = 0, j = length - 1; i < j; i++, j--) // put it in start to meet order
+        {
+            int tmp = hierarchyPath[i];
+            hierarchyPath[i] = hierarchyPath[j];
+            hierarchyPath[j] = tmp;
+        }
+        for (int at = meet; at != end;) // meet forward to end
+        {
+            at = backward.previous(at);
+            hierarchyPath = ensure(hierarchyPath, length);
+            hierarchyPath[length++] = at;
+        }
+
+        int[] stack = new int[16];
+        for (int i = 0; i + 1 < length; i++) {
+            int from = hierarchyPath[i];
+            int top = 0;
+            stack[top++] = hierarchyPath[i + 1];
+            while (top > 0) // expand the edge from to the node on top of the stack
+            {
+                int to = stack[top - 1];
+                int middle = middleOf(from, to);
+                if (middle == -1) // an original edge
+                {
+                    previous[to] = from;
+                    from = to;
+                    top--;
+                } else {
+                    stack = ensure(stack, top);
+                    stack[top++] = middle;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the node skipped by the hierarchy edge from to to, -1 if the edge is
+     *         an original edge
+     */
+    private int middleOf(int from, int to) {
+        if (rank[from] < rank[to]) {
+            for (int e = upOffsets[from]; e < upOffsets[from + 1]; e++) {
+                if (upTargets[e] == to) {
+                    return upMiddle[e];
+                }
+            }
+        } else {
+            for (int e = downOffsets[to]; e < downOffsets[to + 1]; e++) {
+                if (downTargets[e] == from) {
+                    return downMiddle[e];
+                }
+            }
+        }
+        throw new IllegalStateException("no hierarchy edge " + from + " -> " + to);
+    }
+
+    /**
+     * grows array when index is past its end
+     */
+    private static int[] ensure(int[] array, int index) {
+        return index < array.length ? array : Arrays.copyOf(array, array.length * 2);
+    }
+
+    // -----------------------------persistence--------------------------------------
+
+    /**
+     * writes the hierarchy to a binary file so preprocessing only has to run once.
+     *
+     * @param file the file to write
+     * @throws IOException if the file can not be written
+     */
+    public void save(File file) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            output.writeInt(FILE_MAGIC);
+            output.writeInt(nodes);
+            writeInts(output, rank);
+            writeInts(output, upOffsets);
+            writeInts(output, upTargets);
+            writeDoubles(output, upWeights);
+            writeInts(output, upMiddle);
+            writeInts(output, downOffsets);
+            writeInts(output, downTargets);
+            writeDoubles(output, downWeights);
+            writeInts(output, downMiddle);
+        }
+    }
+
+    /**
+     * reads a hierarchy written by save.
+     *
+     * @param file the file to read
+     * @return the hierarchy
+     * @throws IOException if the file can not be read or is not a saved hierarchy
+     */
+    public static ContractionHierarchy load(File file) throws IOException {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (input.readInt() != FILE_MAGIC) {
+                throw new IOException("not a contraction hierarchy file: " + file);
+            }
+            int n = input.readInt();
+            return new ContractionHierarchy(n, readInts(input), readInts(input), readInts(input),
+                    readDoubles(input), readInts(input), readInts(input), readInts(input), readDoubles(input),
+                    readInts(input));
+        }
+    }
+
+    private static void writeInts(DataOutputStream output, int[] values) throws IOException {
+        output.writeInt(values.length);
+        for (int value : values) {
+            output.writeInt(value);
+        }
+    }
+
+    private static void writeDoubles(DataOutputStream output, double[] values) throws IOException {
+        output.writeInt(values.length);
+        for (double value : values) {
+            output.writeDouble(value);
+        }
+    }
+
+    private static int[] readInts(DataInputStream input) throws IOException {
+        int[] values = new int[input.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = input.readInt();
+        }
+        return values;
+    }
+
+    private static double[] readDoubles(DataInputStream input) throws IOException {
+        double[] values = new double[input.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = input.readDouble();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,353 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A parallel single source shortest path solver using delta-stepping. Nodes
+ * are kept in buckets of width delta by their tentative distance. The nodes of
+ * the smallest bucket are processed together on a ForkJoinPool: light edges
+ * (weight at most delta) are relaxed repeatedly until the bucket is empty, then
+ * the heavy edges of every node removed from it are relaxed once. Distances
+ * are stored as the raw bits of a double in an AtomicLongArray and lowered with
+ * compare and set, so threads never lock.
+ *
+ * The result is the same distance and previous arrays Dijkstra computes for a
+ * one to all search. Edge weights must not be negative. One solver runs one
+ * search at a time; use a solver per concurrent search.
+ */
+public class DeltaStepping {
+    private static final int SPLIT_THRESHOLD = 256; // frontier nodes a task relaxes itself instead of splitting
+    private static final long INFINITY_BITS = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+
+    // instance variables
+    private final int nodes; // number of nodes in graph
+    private final int[] offsets; // start of the edges of every node
+    private final int[] lightEnd; // end of the light edges of every node, heavy edges follow
+    private final int[] targets; // the ending node of every edge, light edges first
+    private final double[] weights; // the weight of every edge, light edges first
+    private final double delta; // the bucket width
+    private final ForkJoinPool pool; // the threads the buckets are processed on
+    private AtomicLongArray tentative; // the distance bits of the current run
+    private AtomicIntegerArray parent; // the previous nodes of the current run
+    protected double[] distance; // the distances found by the last run
+    protected int[] previous; // the previous nodes found by the last run, -1 for start and unreached nodes
+
+    /**
+     * a solver on the common ForkJoinPool
+     *
+     * @param g     the graph to search
+     * @param delta the bucket width, see suggestDelta
+     */
+    public DeltaStepping(CSRGraph g, double delta) {
+        this(g, delta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * a solver on a given pool. The edges of every node are reordered so the
+     * light edges come first.
+     *
+     * @param g     the graph to search
+     * @param delta the bucket width, see suggestDelta
+     * @param pool  the pool to run on
+     */
+    public DeltaStepping(CSRGraph g, double delta, ForkJoinPool pool) {
+        if (!(delta > 0.0)) {
+            throw new IllegalArgumentException("delta must be positive; received: " + delta);
+        }
+        nodes = g.size();
+        this.delta = delta;
+        this.pool = pool;
+        offsets = g.offsets;
+        lightEnd = new int[nodes];
+        targets = new int[g.targets.length];
+        weights = new double[g.targets.length];
+        for (int u = 0; u < nodes; u++) // split the edges of every node into light then heavy
+        {
+            int light = offsets[u];
+            int heavy = offsets[u + 1];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int slot = g.weights[e] <= delta ? light++ : --heavy;
+                targets[slot] = g.targets[e];
+                weights[slot] = g.weights[e];
+            }
+            lightEnd[u] = light;
+        }
+    }
+
+    /**
+     * a bucket width that works well for most graphs: the largest weight divided
+     * by the average out degree, so a bucket holds about one edge worth of
+     * distance per neighbor.
+     *
+     * @param g the graph to search
+     * @return the suggested delta
+     */
+    public static double suggestDelta(CSRGraph g) {
+        double maxWeight = 0.0;
+        for (double w : g.weights) {
+            maxWeight = Math.max(maxWeight, w);
+        }
+        double averageDegree = Math.max(1.0, (double) g.edgeCount() / Math.max(1, g.size()));
+        return maxWeight > 0.0 ? maxWeight / averageDegree : 1.0;
+    }
+
+    /**
+     * finds the shortest distance from start to every node.
+     *
+     * @param start the starting node
+     * @return the distance of every node, positive infinity if it can not be
+     *         reached. The previous nodes are available from getPrevious.
+     */
+    public double[] shortestPaths(int start) {
+        if (start < 0 || start >= nodes) {
+            throw new IllegalArgumentException("Invalid node index");
+        }
+        tentative = new AtomicLongArray(nodes);
+        for (int i = 0; i < nodes; i++) {
+            tentative.set(i, INFINITY_BITS);
+        }
+        tentative.set(start, Double.doubleToRawLongBits(0.0));
+        TreeMap<Long, IntBuffer> buckets = new TreeMap<>(); // bucket index to the nodes put in it
+        buckets.computeIfAbsent(0L, k -> new IntBuffer()).add(start);
+        int[] inFrontier = new int[nodes]; // stamp of the last frontier a node was added to
+        int[] inSettled = new int[nodes]; // stamp of the last bucket a node was removed from
+        int stamp = 0;
+        int bucketStamp = 0;
+
+        while (!buckets.isEmpty()) {
+            Map.Entry<Long, IntBuffer> entry = buckets.pollFirstEntry();
+            long current = entry.getKey();
+            bucketStamp++;
+            IntBuffer settled = new IntBuffer(); // every node removed from this bucket
+            IntBuffer frontier = new IntBuffer();
+            stamp++;
+            for (int i = 0; i < entry.getValue().size; i++) // drop nodes that moved to a lower bucket
+            {
+                int node = entry.getValue().data[i];
+                if (bucketOf(node) == current && inFrontier[node] != stamp) {
+                    inFrontier[node] = stamp;
+                    frontier.add(node);
+                }
+            }
+            while (frontier.size > 0) {
+                for (int i = 0; i < frontier.size; i++) {
+                    int node = frontier.data[i];
+                    if (inSettled[node] != bucketStamp) {
+                        inSettled[node] = bucketStamp;
+                        settled.add(node);
+                    }
+                }
+                IntBuffer improved = pool.invoke(new RelaxTask(frontier.data, 0, frontier.size, true));
+                IntBuffer next = new IntBuffer();
+                stamp++;
+                for (int i = 0; i < improved.size; i++) {
+                    int node = improved.data[i];
+                    long bucket = bucketOf(node);
+                    if (bucket <= current) // still in this bucket, relax its light edges again
+                    {
+                        if (inFrontier[node] != stamp) {
+                            inFrontier[node] = stamp;
+                            next.add(node);
+                        }
+                    } else {
+                        buckets.computeIfAbsent(bucket, k -> new IntBuffer()).add(node);
+                    }
+                }
+                frontier = next;
+            }
+            IntBuffer improved = pool.invoke(new RelaxTask(settled.data, 0, settled.size, false));
+            for (int i = 0; i < improved.size; i++) // heavy edges lead to a later bucket
+            {
+                int node = improved.data[i];
+                buckets.computeIfAbsent(bucketOf(node), k -> new IntBuffer()).add(node);
+            }
+        }
+
+        distance = new double[nodes];
+        for (int i = 0; i < nodes; i++) {
+            distance[i] = Double.longBitsToDouble(tentative.get(i));
+        }
+        previous = buildParents(start);
+        tentative = null;
+        return distance;
+    }
+
+    /**
+     * @return the distances found by the last run
+     */
+    public double[] getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return the previous node of every node found by the last run
+     */
+    public int[] getPrevious() {
+        return previous;
+    }
+
+    /**
+     * the bucket a node currently belongs to
+     */
+    private long bucketOf(int node) {
+        return (long) (Double.longBitsToDouble(tentative.get(node)) / delta);
+    }
+
+    /**
+     * Picks the previous node of every node once the distances are final. Any
+     * edge u to v with distance[u] + weight == distance[v] is on a shortest path.
+     * Writing the parent during relaxation could race with a later improvement,
+     * so instead a parallel breadth first search over these tight edges starting
+     * at start claims every node exactly once with compare and set. This also
+     * keeps zero weight cycles from turning into cycles in previous.
+     *
+     * @param start the starting node
+     * @return the previous array
+     */
+    private int[] buildParents(int start) {
+        parent = new AtomicIntegerArray(nodes);
+        for (int i = 0; i < nodes; i++) {
+            parent.set(i, -1);
+        }
+        parent.set(start, start); // claimed so no edge back to start takes it
+        IntBuffer frontier = new IntBuffer();
+        frontier.add(start);
+        while (frontier.size > 0) {
+            frontier = pool.invoke(new ParentTask(frontier.data, 0, frontier.size));
+        }
+        int[] result = new int[nodes];
+        for (int i = 0; i < nodes; i++) {
+            result[i] = parent.get(i);
+        }
+        result[start] = -1;
+        parent = null;
+        return result;
+    }
+
+    // -------------------nested classes--------------------------------------------
+
+    /**
+     * a growable int array
+     */
+    private static class IntBuffer {
+        int[] data = new int[16];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        void addAll(IntBuffer other) {
+            if (size + other.size > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + other.size));
+            }
+            System.arraycopy(other.data, 0, data, size, other.size);
+            size += other.size;
+        }
+    }
+
+    /**
+     * relaxes the light or heavy edges of the nodes from index from up to to and
+     * returns the nodes whose distance went down.
+     */
+    private class RelaxTask extends RecursiveTask<IntBuffer> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] items;
+        private final int from;
+        private final int to;
+        private final boolean light;
+
+        RelaxTask(int[] items, int from, int to, boolean light) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.light = light;
+        }
+
+        @Override
+        protected IntBuffer compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                IntBuffer improved = new IntBuffer();
+                for (int i = from; i < to; i++) {
+                    int u = items[i];
+                    double du = Double.longBitsToDouble(tentative.get(u));
+                    int first = light ? offsets[u] : lightEnd[u];
+                    int last = light ? lightEnd[u] : offsets[u + 1];
+                    for (int e = first; e < last; e++) {
+                        int v = targets[e];
+                        double newDistance = du + weights[e];
+                        long bits = Double.doubleToRawLongBits(newDistance);
+                        while (true) // lower the distance of v unless another thread found a shorter one
+                        {
+                            long old = tentative.get(v);
+                            if (newDistance >= Double.longBitsToDouble(old)) {
+                                break;
+                            }
+                            if (tentative.compareAndSet(v, old, bits)) {
+                                improved.add(v);
+                                break;
+                            }
+                        }
+                    }
+                }
+                return improved;
+            }
+            int middle = (from + to) >>> 1;
+            RelaxTask left = new RelaxTask(items, from, middle, light);
+            left.fork();
+            IntBuffer improved = new RelaxTask(items, middle, to, light).compute();
+            improved.addAll(left.join());
+            return improved;
+        }
+    }
+
+    /**
+     * claims the unclaimed nodes reached by tight edges from the nodes from index
+     * from up to to and returns them as the next breadth first level.
+     */
+    private class ParentTask extends RecursiveTask<IntBuffer> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] items;
+        private final int from;
+        private final int to;
+
+        ParentTask(int[] items, int from, int to) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected IntBuffer compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                IntBuffer claimed = new IntBuffer();
+                for (int i = from; i < to; i++) {
+                    int u = items[i];
+                    for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                        int v = targets[e];
+                        if (distance[u] + weights[e] == distance[v] && parent.get(v) == -1
+                                && parent.compareAndSet(v, -1, u)) {
+                            claimed.add(v);
+                        }
+                    }
+                }
+                return claimed;
+            }
+            int middle = (from + to) >>> 1;
+            ParentTask left = new ParentTask(items, from, middle);
+            left.fork();
+            IntBuffer claimed = new ParentTask(items, middle, to).compute();
+            claimed.addAll(left.join());
+            return claimed;
+        }
+    }
+}
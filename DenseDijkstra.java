@@ -0,0 +1,276 @@
+import java.util.Arrays;
+
+/**
+ * Dijkstra's algorithm for dense graphs without a priority heap. The next node
+ * to visit is found by a linear scan of the distances of the nodes not yet
+ * visited, so a query costs O(n^2) no matter how many edges are relaxed. With
+ * a heap every relaxed edge can cost a decrease of O(log n), so once most pairs
+ * of nodes are connected (the actor graph is complete) the scan is faster, and
+ * it only reads plain arrays front to back.
+ *
+ * The unvisited nodes are kept packed at the front of an array so every scan
+ * only reads the nodes that are left. On an ImplicitActorGraph the scan and
+ * the relaxation run over whole rows instead, through a RelaxKernel that can
+ * use SIMD instructions. A solver is not thread safe.
+ *
+ * The scan relies on a visited node never being lowered again, so every weight
+ * must be at least 0. An actor discount above 1 makes a weight negative, and
+ * such a graph is rejected; Dijkstra searches it with the heap instead.
+ */
+public class DenseDijkstra {
+    public static final double DENSITY_THRESHOLD = 0.25; // edges per n^2 above which the scan beats the heap
+
+    // instance variables
+    private final int nodes; // number of nodes in graph
+    private final NeighborGraph graph; // the graph to search
+    private final CSRGraph csrGraph; // graph when it is compressed, its arrays are read directly
+    private final ImplicitActorGraph actorGraph; // graph when it is an actor graph, relaxed by the kernel
+    private final RelaxKernel kernel; // the row loops used for actorGraph
+    private NeighborGraph.EdgeCursor cursor; // the cursor over graph, created on the first search
+    private final double[] distance; // the distance of every node found by the last search
+    private final int[] previous; // the previous node of every node found by the last search, -1 if none
+    private final int[] unvisited; // the nodes not visited yet, packed at the front
+    private final int[] position; // the index of every unvisited node in unvisited
+    private final double[] key; // the distance of every unvisited node of actorGraph, infinity once visited
+
+    /**
+     * a solver using the fastest RelaxKernel available for actor graphs
+     *
+     * @param g the graph to search
+     */
+    public DenseDijkstra(NeighborGraph g) {
+        this(g, RelaxKernel.select());
+    }
+
+    /**
+     * @param g      the graph to search
+     * @param kernel the row loops to use when g is an ImplicitActorGraph
+     * @throws IllegalArgumentException if g has a negative weight
+     */
+    public DenseDijkstra(NeighborGraph g, RelaxKernel kernel) {
+        this(g, kernel, true);
+    }
+
+    /**
+     * the solver, checking the weights of g only if check is true
+     */
+    private DenseDijkstra(NeighborGraph g, RelaxKernel kernel, boolean check) {
+        if (check && hasNegativeWeight(g)) {
+            throw new IllegalArgumentException("the dense solver needs weights of at least 0");
+        }
+        nodes = g.size();
+        graph = g;
+        csrGraph = g instanceof CSRGraph ? (CSRGraph) g : null;
+        actorGraph = g instanceof ImplicitActorGraph ? (ImplicitActorGraph) g : null;
+        this.kernel = kernel;
+        distance = new double[nodes];
+        previous = new int[nodes];
+        unvisited = actorGraph == null ? new int[nodes] : null;
+        position = actorGraph == null ? new int[nodes] : null;
+        key = actorGraph != null ? new double[nodes] : null;
+    }
+
+    /**
+     * @param edges the number of edges of a graph
+     * @param n     the number of nodes of the graph
+     * @return true if the graph has enough edges for the scan to be faster than a
+     *         heap
+     */
+    public static boolean isDense(long edges, int n) {
+        return n > 0 && edges >= DENSITY_THRESHOLD * n * n;
+    }
+
+    /**
+     * a solver using the fastest RelaxKernel available, unless g has a negative
+     * weight. The weights are only read once.
+     *
+     * @param g the graph to search
+     * @return the solver, null if g has a negative weight
+     */
+    static DenseDijkstra ifNonNegative(NeighborGraph g) {
+        return hasNegativeWeight(g) ? null : new DenseDijkstra(g, RelaxKernel.select(), false);
+    }
+
+    /**
+     * @param g a graph
+     * @return true if some weight of g is below 0, taken from the actor graph or
+     *         the weight range when g keeps one and from every edge otherwise
+     */
+    public static boolean hasNegativeWeight(NeighborGraph g) {
+        if (g instanceof ImplicitActorGraph) {
+            return ((ImplicitActorGraph) g).hasNegativeWeight();
+        }
+        WeightRange range = g.getWeightRange();
+        if (range != null) {
+            return range.getMin() < 0.0;
+        }
+        NeighborGraph.EdgeCursor edges = g.cursor();
+        for (int u = 0; u < g.size(); u++) {
+            for (edges.reset(u); edges.next();) {
+                if (edges.weight() < 0.0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * finds the shortest path from start to end. The search stops once end is
+     * visited; pass -1 as end to find the distance of every node.
+     *
+     * @param start the starting node
+     * @param end   the ending or target node, -1 for none
+     * @return the weight of the shortest path, positive infinity if end can not be
+     *         reached
+     */
+    public double shortestPath(int start, int end) {
+        return shortestPath(start, end, null);
+    }
+
+    /**
+     * shortestPath counting the settled nodes and relaxed edges into query
+     *
+     * @param start the starting node
+     * @param end   the ending or target node, -1 for none
+     * @param query the counters of the query, null when SearchStats is disabled
+     * @return the weight of the shortest path
+     */
+    double shortestPath(int start, int end, SearchStats.Query query) {
+        if (start < 0 || start >= nodes) {
+            throw new IllegalArgumentException("Invalid node index");
+        }
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        Arrays.fill(previous, -1);
+        if (actorGraph != null) {
+            return actorPath(start, end, query);
+        }
+        for (int i = 0; i < nodes; i++) {
+            unvisited[i] = i;
+            position[i] = i;
+        }
+        distance[start] = 0.0;
+        int left = nodes; // the number of unvisited nodes
+
+        while (left > 0) {
+            int best = -1; // index in unvisited of the closest unvisited node
+            double bestDistance = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < left; i++) {
+                double d = distance[unvisited[i]];
+                if (d < bestDistance) {
+                    bestDistance = d;
+                    best = i;
+                }
+            }
+            if (best == -1) // every node left can not be reached
+            {
+                break;
+            }
+            int nodeId = unvisited[best];
+            int last = unvisited[--left]; // move the last unvisited node into the hole
+            unvisited[best] = last;
+            position[last] = best;
+            position[nodeId] = -1; // marks nodeId as visited
+            if (nodeId == end) {
+                return bestDistance;
+            }
+            if (SearchStats.ENABLED && query != null) {
+                query.settled++;
+            }
+            relax(nodeId, bestDistance, query);
+        }
+        return end == -1 ? Double.POSITIVE_INFINITY : distance[end];
+    }
+
+    /**
+     * the search on an actor graph. Visited nodes keep a key of infinity so the
+     * kernel can scan all keys in one pass without skipping any.
+     */
+    private double actorPath(int start, int end, SearchStats.Query query) {
+        final int store = actorGraph.getActors(); // the store is the last node
+        final double[] baseCost = actorGraph.getBaseCost();
+        final double[] discount = actorGraph.getDiscount();
+        Arrays.fill(key, Double.POSITIVE_INFINITY);
+        distance[start] = 0.0;
+        key[start] = 0.0;
+
+        while (true) {
+            int nodeId = kernel.minIndex(key, nodes);
+            if (nodeId == -1) // every node left can not be reached
+            {
+                break;
+            }
+            double nodeDistance = key[nodeId];
+            key[nodeId] = Double.POSITIVE_INFINITY; // visited
+            if (nodeId == end) {
+                return nodeDistance;
+            }
+            if (SearchStats.ENABLED && query != null) {
+                query.settled++;
+                query.relaxed += store; // every node has an edge to each actor
+            }
+            if (nodeId == store) {
+                kernel.relax(nodeDistance, nodeId, baseCost, discount, -1, distance, key, previous);
+            } else {
+                // the kernel also relaxes the edge from nodeId to itself with the diagonal
+                // discount instead of the full base cost, so nodeId is restored afterwards
+                int self = previous[nodeId];
+                kernel.relax(nodeDistance, nodeId, baseCost, discount, nodeId * store, distance, key, previous);
+                distance[nodeId] = nodeDistance;
+                key[nodeId] = Double.POSITIVE_INFINITY;
+                previous[nodeId] = self;
+            }
+        }
+        return end == -1 ? Double.POSITIVE_INFINITY : distance[end];
+    }
+
+    /**
+     * lowers the distance of every unvisited neighbor of nodeId
+     */
+    private void relax(int nodeId, double nodeDistance, SearchStats.Query query) {
+        if (csrGraph != null) {
+            final int[] targets = csrGraph.targets;
+            final double[] weights = csrGraph.weights;
+            if (SearchStats.ENABLED && query != null) {
+                query.relaxed += csrGraph.offsets[nodeId + 1] - csrGraph.offsets[nodeId];
+            }
+            for (int e = csrGraph.offsets[nodeId], last = csrGraph.offsets[nodeId + 1]; e < last; e++) {
+                int next = targets[e];
+                double newDistance = nodeDistance + weights[e];
+                if (newDistance < distance[next] && position[next] != -1) {
+                    distance[next] = newDistance;
+                    previous[next] = nodeId;
+                }
+            }
+            return;
+        }
+        if (cursor == null) {
+            cursor = graph.cursor();
+        }
+        for (cursor.reset(nodeId); cursor.next();) {
+            if (SearchStats.ENABLED && query != null) {
+                query.relaxed++;
+            }
+            int next = cursor.target();
+            double newDistance = nodeDistance + cursor.weight();
+            if (newDistance < distance[next] && position[next] != -1) {
+                distance[next] = newDistance;
+                previous[next] = nodeId;
+            }
+        }
+    }
+
+    /**
+     * @return the distance of every node found by the last search, not copied
+     */
+    public double[] getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return the previous node of every node found by the last search, not copied
+     */
+    public int[] getPrevious() {
+        return previous;
+    }
+}
@@ -0,0 +1,251 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Dial's bucket queue for graphs whose edge weights are whole multiples of a
+ * fixed step (whole dollars, cents). A value is turned into a whole number of
+ * steps and the key goes into the bucket of that number. Because Dijkstra never
+ * queues a value more than the largest edge weight C above the last removed
+ * minimum, C + 1 buckets used as a ring are enough. Insert and decrease are
+ * O(1) and removing the minimum moves a cursor forward over the ring, so a
+ * whole search costs O(m + n + D / step) where D is the largest distance.
+ *
+ * The queue is monotone: a value below the last removed minimum or more than C
+ * above it throws an IllegalArgumentException. Values that round to the same
+ * step still come out smallest first: a bucket whose keys all have one value is
+ * taken from its front, a bucket of different values is scanned for the
+ * smallest. Keys of equal value come out in no particular order. A queue is not
+ * thread safe.
+ */
+public class DialQueue implements IndexedPriorityQueue {
+    // instance variables
+    private final int maxElements; // the number of keys the queue can hold
+    private final double scale; // the number of steps per unit of value
+    private final int buckets; // the number of buckets in the ring, the largest edge weight in steps + 1
+    private final int[] head; // the first key of every bucket, -1 if empty
+    private final int[] next; // the next key in the bucket of every key, -1 at the end
+    private final int[] prev; // the previous key in the bucket of every key, -1 at the front
+    private final int[] bucketOf; // the bucket of every key, -1 if not queued
+    private final double[] values; // the value of every queued key
+    private final double[] bucketValue; // the value of the first key linked into every empty bucket
+    private final boolean[] mixed; // true if a bucket holds keys of different values
+    private int currentNumNodes; // the number of queued keys
+    private long cursor; // the steps of the smallest value that can still be queued
+    private SearchStats.Query stats; // the query the operations are counted for, null for none
+
+    /**
+     * @param maxSize   the number of keys the queue can hold
+     * @param scale     the number of steps per unit, 1 for whole numbers, 100 for
+     *                  cents
+     * @param maxWeight the largest edge weight in steps
+     */
+    public DialQueue(int maxSize, long scale, long maxWeight) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        if (scale <= 0 || maxWeight < 0 || maxWeight >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid bucket range; received: " + scale + ", " + maxWeight);
+        }
+        maxElements = maxSize;
+        this.scale = scale;
+        buckets = (int) maxWeight + 1;
+        head = new int[buckets];
+        next = new int[maxSize];
+        prev = new int[maxSize];
+        bucketOf = new int[maxSize];
+        values = new double[maxSize];
+        bucketValue = new double[buckets];
+        mixed = new boolean[buckets];
+        for (int i = 0; i < buckets; i++) {
+            head[i] = -1;
+        }
+        for (int i = 0; i < maxSize; i++) {
+            bucketOf[i] = -1;
+        }
+    }
+
+    @Override
+    public int size() {
+        return currentNumNodes;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return currentNumNodes == 0;
+    }
+
+    @Override
+    public boolean contains(int key) {
+        keyInBoundsOrThrow(key);
+        return bucketOf[key] != -1;
+    }
+
+    /**
+     * moves the cursor to the first bucket that is not empty and returns its
+     * smallest key
+     */
+    @Override
+    public int minKeyIndex() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Priority queue underflow");
+        }
+        int bucket = (int) (cursor % buckets);
+        while (head[bucket] == -1) {
+            cursor++;
+            if (++bucket == buckets) {
+                bucket = 0;
+            }
+        }
+        return mixed[bucket] ? smallestIn(bucket) : head[bucket];
+    }
+
+    @Override
+    public double minValue() {
+        return values[minKeyIndex()];
+    }
+
+    @Override
+    public int removeMinKeyIndex() {
+        int key = minKeyIndex();
+        unlink(key);
+        if (SearchStats.ENABLED && stats != null) {
+            stats.removals++;
+        }
+        return key;
+    }
+
+    @Override
+    public double removeMinValue() {
+        return values[removeMinKeyIndex()];
+    }
+
+    @Override
+    public void insert(int key, double value) {
+        if (contains(key)) {
+            throw new IllegalArgumentException("index already exists; received: " + key);
+        }
+        long steps = stepsOrThrow(value);
+        values[key] = value;
+        link(key, steps);
+        currentNumNodes++;
+        if (SearchStats.ENABLED && stats != null) {
+            stats.inserts++;
+        }
+    }
+
+    @Override
+    public void decrease(int key, double value) {
+        if (!contains(key)) {
+            throw new NoSuchElementException("Index does not exist; received: " + key);
+        }
+        if (value < values[key]) {
+            long steps = stepsOrThrow(value);
+            unlink(key);
+            currentNumNodes++; // unlink counted a removal
+            values[key] = value;
+            link(key, steps);
+            if (SearchStats.ENABLED && stats != null) {
+                stats.decreases++;
+            }
+        }
+    }
+
+    /**
+     * empties the buckets from the cursor on until every queued key is found, so
+     * the cost depends on the keys left and the range they span
+     */
+    @Override
+    public void clear() {
+        for (int bucket = (int) (cursor % buckets); currentNumNodes > 0;) {
+            while (head[bucket] != -1) {
+                unlink(head[bucket]);
+            }
+            if (++bucket == buckets) {
+                bucket = 0;
+            }
+        }
+        cursor = 0;
+    }
+
+    @Override
+    public void setStats(SearchStats.Query query) {
+        stats = query;
+    }
+
+    // ---------------------------Helper
+    // functions-----------------------------------
+
+    /**
+     * the value in whole steps, checked against the range the ring can hold
+     */
+    private long stepsOrThrow(double value) {
+        if (!(value >= 0.0)) {
+            throw new IllegalArgumentException("value must not be negative or NaN; received: " + value);
+        }
+        long steps = Math.round(value * scale);
+        if (steps < cursor || steps - cursor >= buckets) {
+            throw new IllegalArgumentException("value outside the monotone bucket range; received: " + value);
+        }
+        return steps;
+    }
+
+    /**
+     * the key of the smallest value in a bucket
+     */
+    private int smallestIn(int bucket) {
+        int smallest = head[bucket];
+        for (int key = next[smallest]; key != -1; key = next[key]) {
+            if (values[key] < values[smallest]) {
+                smallest = key;
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * adds key at the front of the bucket of steps, values[key] has to be set
+     */
+    private void link(int key, long steps) {
+        int bucket = (int) (steps % buckets);
+        int first = head[bucket];
+        if (first == -1) // the bucket starts over with this value
+        {
+            bucketValue[bucket] = values[key];
+            mixed[bucket] = false;
+        } else if (values[key] != bucketValue[bucket]) {
+            mixed[bucket] = true;
+        }
+        next[key] = first;
+        prev[key] = -1;
+        if (first != -1) {
+            prev[first] = key;
+        }
+        head[bucket] = key;
+        bucketOf[key] = bucket;
+    }
+
+    /**
+     * removes key from its bucket
+     */
+    private void unlink(int key) {
+        int bucket = bucketOf[key];
+        if (prev[key] != -1) {
+            next[prev[key]] = next[key];
+        } else {
+            head[bucket] = next[key];
+        }
+        if (next[key] != -1) {
+            prev[next[key]] = prev[key];
+        }
+        bucketOf[key] = -1;
+        currentNumNodes--;
+    }
+
+    /**
+     * checks whether the key is within the bounds of the queue
+     */
+    private void keyInBoundsOrThrow(int key) {
+        if (key < 0 || key >= maxElements) {
+            throw new IllegalArgumentException("Key index out of bounds; received: " + key);
+        }
+    }
+}
@@ -1,5 +1,4 @@
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -13,7 +12,19 @@ public class Dijkstra {
     // instance variables
     private int numberOfNodes; // the number of nodes nextNode consider
     private graphEdge targetGraph; // the weighted directed edge graph nextNode check
-    protected int[] previous; // an array of the previously visited nodes
+    private CSRGraph csrGraph; // the compressed graph given to the constructor, used instead of targetGraph when set
+    private NeighborGraph neighborGraph; // any other graph, searched through its edge cursor
+    private NeighborGraph.EdgeCursor cursor; // the cursor over neighborGraph, created on the first search
+    private CSRGraph derivedGraph; // a compressed copy of another graph for altDijkstra and bidirectionalDijkstra
+    private CSRGraph reverseGraph; // the reverse of the compressed graph, created on the first bidirectional search
+    private DenseDijkstra denseSolver; // the heapless solver, used instead of the heap when the graph is dense
+    private boolean densityChecked; // true once the graph was checked for density
+    private long checkedVersion; // the version of targetGraph the derived graphs and solvers were made from
+    private IndexedPriorityQueue queue; // the priority queue of the last search
+    private PriorityQueues.Choice queueChoice; // the kind of queue picked for the graph, null until the first search
+    private boolean queueSet; // true if queue was given with setQueue and is never picked again
+    protected int[] previous; // an array of the previously visited nodes of the last search
+    private int[] ownPrevious; // the previous nodes copied out of the workspace, created on the first search
 
     // default constructor
     public Dijkstra() {
@@ -30,6 +41,28 @@ public class Dijkstra {
         targetGraph = g;
     }
 
+    /**
+     * a constructor that searches a compressed sparse row graph. The number of
+     * nodes is taken from the graph.
+     * 
+     * @param g the graph nextNode search
+     */
+    public Dijkstra(CSRGraph g) {
+        numberOfNodes = g.size();
+        csrGraph = g;
+    }
+
+    /**
+     * a constructor that searches any NeighborGraph through its edge cursor. The
+     * number of nodes is taken from the graph.
+     * 
+     * @param g the graph nextNode search
+     */
+    public Dijkstra(NeighborGraph g) {
+        numberOfNodes = g.size();
+        neighborGraph = g;
+    }
+
     /**
      * method allows Dijkstra's algorithm nextNode on a directed graph nextNode find
      * the shortest path from one starting node nextNode an end node. If there is no
@@ -41,48 +74,94 @@ public class Dijkstra {
      * @return the weight of the shortest path
      */
     public double dijkstra(int start, int end) {
+        if (!SearchStats.ENABLED) {
+            return search(start, end, null);
+        }
+        SearchStats.Query query = SearchStats.begin(start, end); // counts and times this query
+        try {
+            double shortest = search(start, end, query);
+            SearchStats.end(query, shortest);
+            return shortest;
+        } finally {
+            if (queue != null) {
+                queue.setStats(null);
+            }
+        }
+    }
+
+    /**
+     * the search of dijkstra with the graph this Dijkstra was constructed with
+     * 
+     * @param start the starting node
+     * @param end   the ending or target node
+     * @param query the counters of the query, null when SearchStats is disabled
+     * @return the weight of the shortest path
+     */
+    private double search(int start, int end, SearchStats.Query query) {
+        checkVersion();
+        if (denseSolver() != null) // most pairs of nodes are connected so scanning beats the heap
+        {
+            double shortest = denseSolver.shortestPath(start, end, query);
+            previous = denseSolver.getPrevious();
+            return shortest;
+        }
+        if (csrGraph != null) // the compressed graph is searched without Edge objects
+        {
+            return dijkstraCSR(start, end, query);
+        }
+        if (neighborGraph != null) {
+            return dijkstraCursor(start, end, query);
+        }
         // Keep an Indexed Priority Queue (priorityHeap) of the next most promising node
-        // nextNode visit.
-        MinIndexedBinaryHeap<Double> priorityHeap = new MinIndexedBinaryHeap<>(numberOfNodes);
+        // nextNode visit, picked for this graph by PriorityQueues. The distances and
+        // visited flags live in the reusable workspace of this thread so only the
+        // nodes touched by this query are reset.
+        QueryWorkspace workspace = QueryWorkspace.forThread(numberOfNodes);
+        workspace.begin(); // every node starts at a distance of positive infinity and unvisited
+        IndexedPriorityQueue priorityHeap = priorityQueue(workspace);
+        priorityHeap.setStats(query);
         priorityHeap.insert(start, 0.0); // inserts our starting location into priority heap with weight 0.0
-
-        double[] distance = new double[numberOfNodes]; // maintain an array of the minimum distance nextNode each node.
-        Arrays.fill(distance, Double.POSITIVE_INFINITY); // fills the undiscovered array with values of positive
-                                                         // infinity
-        distance[start] = 0.0; // sets the distance weight from start nextNode start nextNode 0.0
-        boolean[] visited = new boolean[numberOfNodes]; // creates a boolean array nextNode see if the node has been
-                                                        // visited
-        previous = new int[numberOfNodes]; // sets the previous array nextNode max size of the number of nodes
+        workspace.setDistance(start, 0.0, -1); // sets the distance weight from start nextNode start nextNode 0.0
 
         while (!priorityHeap.isEmpty()) // while there are edges nextNode be checked in priority heap
         {
             int nodeId = priorityHeap.minKeyIndex(); // create int nodeId set nextNode the minimum key index in heap
-            visited[nodeId] = true; // update the visited array at the current node nextNode true
+            workspace.visit(nodeId); // update the visited array at the current node nextNode true
             double minValue = priorityHeap.removeMinValue(); // create double set nextNode the returned value of min
                                                              // value in priority heap
 
-            if (minValue > distance[nodeId]) // the minimum value from node at priority heap is greater than current
-                                             // shortest distance
+            // the minimum value from node at priority heap is greater than current shortest
+            // distance
+            if (minValue > workspace.distance(nodeId))
             {
+                if (SearchStats.ENABLED) {
+                    query.stalePops++;
+                }
                 continue; // continue since shorter path has been found before distance at nodeId is
                           // processed so ignore node
             }
+            if (SearchStats.ENABLED) {
+                query.settled++;
+            }
             for (Edge edge : targetGraph.graph.get(nodeId)) // for each edge at the node of nodeId
             {
-                if (visited[edge.nextNode]) // checks if edge goes nextNode node that has been prviously visited
+                if (workspace.isVisited(edge.nextNode)) // checks if edge goes nextNode a visited node
                 {
                     continue; // if true skip that node
                 }
+                if (SearchStats.ENABLED) {
+                    query.relaxed++;
+                }
                 // Relax edge by updating minimum weight if applicable.
                 // goes into distance array creates a new double set nextNode the value distance
                 // at index nodeId + the current edges weigth
-                double newDistance = distance[nodeId] + edge.weight;
+                double newDistance = minValue + edge.weight;
 
                 // checks nextNode see if the new distance is better than the value of distance
                 // at index nodeId (set nextNode positive infinity if not explored)
-                if (newDistance < distance[edge.nextNode]) {
-                    previous[edge.nextNode] = nodeId; // update the path of previous node with current node
-                    distance[edge.nextNode] = newDistance; // update distance array nextNode newDistance
+                if (newDistance < workspace.distance(edge.nextNode)) {
+                    // update the path of previous node with current node and the distance nextNode newDistance
+                    workspace.setDistance(edge.nextNode, newDistance, nodeId);
                     if (!priorityHeap.contains(edge.nextNode)) // if the heap does not contain the next node
                     {
                         priorityHeap.insert(edge.nextNode, newDistance); // insert the weight of going nextNode new node
@@ -95,14 +174,488 @@ public class Dijkstra {
             }
             if (nodeId == end) // if the nodeId is the end node we have found a shortest path
             {
-                return distance[end]; // return the weight of the path by accessing distance array at inded end node
+                return keepPath(workspace, minValue); // return the weight of the path by accessing distance
+                                                      // array at inded end node
+            }
+        }
+        return keepPath(workspace, Double.POSITIVE_INFINITY); // if no end node could not be reached return
+                                                              // positive infinity
+    }
+
+    /**
+     * Dijkstra's algorithm over the CSRGraph. Works the same as the graphEdge
+     * version but reads the outgoing edges of a node straight from the offsets,
+     * targets and weights arrays.
+     * 
+     * @param start the starting node
+     * @param end   the ending or target node
+     * @param query the counters of the query, null when SearchStats is disabled
+     * @return the weight of the shortest path
+     */
+    private double dijkstraCSR(int start, int end, SearchStats.Query query) {
+        final int[] offsets = csrGraph.offsets; // local copies keep the arrays in registers in the loop
+        final int[] targets = csrGraph.targets;
+        final double[] weights = csrGraph.weights;
+        QueryWorkspace workspace = QueryWorkspace.forThread(numberOfNodes);
+        workspace.begin();
+        IndexedPriorityQueue priorityHeap = priorityQueue(workspace);
+        priorityHeap.setStats(query);
+        priorityHeap.insert(start, 0.0);
+        workspace.setDistance(start, 0.0, -1);
+
+        while (!priorityHeap.isEmpty()) {
+            int nodeId = priorityHeap.minKeyIndex();
+            workspace.visit(nodeId);
+            double minValue = priorityHeap.removeMinValue();
+            if (minValue > workspace.distance(nodeId)) // a shorter path was already processed
+            {
+                if (SearchStats.ENABLED) {
+                    query.stalePops++;
+                }
+                continue;
+            }
+            if (SearchStats.ENABLED) {
+                query.settled++;
+            }
+            for (int e = offsets[nodeId], last = offsets[nodeId + 1]; e < last; e++) // every edge leaving nodeId
+            {
+                int next = targets[e];
+                if (workspace.isVisited(next)) {
+                    continue;
+                }
+                if (SearchStats.ENABLED) {
+                    query.relaxed++;
+                }
+                double newDistance = minValue + weights[e]; // relax the edge
+                if (newDistance < workspace.distance(next)) {
+                    workspace.setDistance(next, newDistance, nodeId);
+                    if (!priorityHeap.contains(next)) {
+                        priorityHeap.insert(next, newDistance);
+                    } else {
+                        priorityHeap.decrease(next, newDistance);
+                    }
+                }
+            }
+            if (nodeId == end) {
+                return keepPath(workspace, minValue);
+            }
+        }
+        return keepPath(workspace, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Dijkstra's algorithm over a NeighborGraph. Works the same as the CSRGraph
+     * version but walks the outgoing edges with the cursor of the graph.
+     * 
+     * @param start the starting node
+     * @param end   the ending or target node
+     * @param query the counters of the query, null when SearchStats is disabled
+     * @return the weight of the shortest path
+     */
+    private double dijkstraCursor(int start, int end, SearchStats.Query query) {
+        if (cursor == null) {
+            cursor = neighborGraph.cursor();
+        }
+        QueryWorkspace workspace = QueryWorkspace.forThread(numberOfNodes);
+        workspace.begin();
+        IndexedPriorityQueue priorityHeap = priorityQueue(workspace);
+        priorityHeap.setStats(query);
+        priorityHeap.insert(start, 0.0);
+        workspace.setDistance(start, 0.0, -1);
+
+        while (!priorityHeap.isEmpty()) {
+            int nodeId = priorityHeap.minKeyIndex();
+            workspace.visit(nodeId);
+            double minValue = priorityHeap.removeMinValue();
+            if (minValue > workspace.distance(nodeId)) // a shorter path was already processed
+            {
+                if (SearchStats.ENABLED) {
+                    query.stalePops++;
+                }
+                continue;
             }
+            if (SearchStats.ENABLED) {
+                query.settled++;
+            }
+            for (cursor.reset(nodeId); cursor.next();) // every edge leaving nodeId
+            {
+                int next = cursor.target();
+                if (workspace.isVisited(next)) {
+                    continue;
+                }
+                if (SearchStats.ENABLED) {
+                    query.relaxed++;
+                }
+                double newDistance = minValue + cursor.weight(); // relax the edge
+                if (newDistance < workspace.distance(next)) {
+                    workspace.setDistance(next, newDistance, nodeId);
+                    if (!priorityHeap.contains(next)) {
+                        priorityHeap.insert(next, newDistance);
+                    } else {
+                        priorityHeap.decrease(next, newDistance);
+                    }
+                }
+            }
+            if (nodeId == end) {
+                return keepPath(workspace, minValue);
+            }
+        }
+        return keepPath(workspace, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * sets the priority queue of dijkstra. It must hold every node of the graph,
+     * and a monotone queue only suits non negative weights. Without a queue set
+     * PriorityQueues picks one from the size, degree and weights of the graph.
+     * 
+     * @param q the queue to use, null to pick one again for the graph
+     */
+    public void setQueue(IndexedPriorityQueue q) {
+        queue = q;
+        queueSet = q != null;
+        queueChoice = null;
+    }
+
+    /**
+     * @return the priority queue of the last search or the one set with
+     *         setQueue, null before the first search
+     */
+    public IndexedPriorityQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * the empty queue of a search. The kind of queue is picked for the graph the
+     * first time it is needed and the queue itself comes from the workspace of
+     * this thread, so Dijkstra objects made per task do not allocate one each.
+     */
+    private IndexedPriorityQueue priorityQueue(QueryWorkspace workspace) {
+        if (queueSet) {
+            queue.clear();
+            return queue;
+        }
+        if (queueChoice == null) {
+            WeightRange range = null;
+            if (targetGraph != null) {
+                range = targetGraph.getWeightRange();
+            } else if (csrGraph != null) {
+                range = csrGraph.getWeightRange();
+            } else if (neighborGraph != null) {
+                range = neighborGraph.getWeightRange();
+            }
+            queueChoice = PriorityQueues.choose(numberOfNodes, edgeCount(), range);
+        }
+        queue = workspace.queue(queueChoice);
+        return queue;
+    }
+
+    /**
+     * the version of the graph searched. Only a graphEdge can change; the other
+     * graphs always report version 0.
+     * 
+     * @return the version of the graph
+     */
+    public long graphVersion() {
+        return targetGraph != null ? targetGraph.getVersion() : 0;
+    }
+
+    /**
+     * drops the compressed copy, its reverse and the density decision when the
+     * edges of targetGraph changed since they were made
+     */
+    private void checkVersion() {
+        if (targetGraph != null && targetGraph.getVersion() != checkedVersion) {
+            checkedVersion = targetGraph.getVersion();
+            derivedGraph = null;
+            reverseGraph = null;
+            denseSolver = null;
+            densityChecked = false;
+            queueChoice = null; // the weights may have widened
+        }
+    }
+
+    /**
+     * the graph as a CSRGraph for the searches that need the offsets or the
+     * reverse graph. Any other graph is copied the first time it is needed. The
+     * copy is kept apart from csrGraph so dijkstra still searches the graph this
+     * Dijkstra was constructed with, through its edge cursor or edge lists.
+     * 
+     * @return csrGraph, or the compressed copy of the graph
+     */
+    private CSRGraph compressed() {
+        if (csrGraph != null) {
+            return csrGraph;
+        }
+        if (derivedGraph == null) {
+            derivedGraph = neighborGraph != null ? CSRGraph.fromNeighbors(neighborGraph)
+                    : CSRGraph.fromGraph(targetGraph);
+        }
+        return derivedGraph;
+    }
+
+    /**
+     * checks the density of the graph the first time it is searched and creates
+     * a DenseDijkstra when it has more than DenseDijkstra.DENSITY_THRESHOLD times
+     * n^2 edges and no negative weight.
+     * 
+     * @return the dense solver, null if the graph is sparse or has a negative
+     *         weight
+     */
+    private DenseDijkstra denseSolver() {
+        if (!densityChecked) {
+            densityChecked = true;
+            if (DenseDijkstra.isDense(edgeCount(), numberOfNodes)) {
+                denseSolver = DenseDijkstra.ifNonNegative(neighborGraph != null ? neighborGraph : compressed());
+            }
+        }
+        return denseSolver;
+    }
+
+    /**
+     * @return the number of edges of the graph
+     */
+    private long edgeCount() {
+        if (csrGraph != null || neighborGraph != null) {
+            return csrGraph != null ? csrGraph.edgeCount() : neighborGraph.edgeCount();
+        }
+        long edges = 0;
+        if (targetGraph != null) {
+            for (int i = 0; i < targetGraph.graph.size(); i++) {
+                edges += targetGraph.graph.get(i).size();
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * runs dijkstra from start without a target node and collects the distance of
+     * every node.
+     * 
+     * @param start the starting node
+     * @return the weight of the shortest path from start to every node, positive
+     *         infinity for nodes that can not be reached
+     */
+    public double[] distancesFrom(int start) {
+        dijkstra(start, -1); // no node is the target so the whole reachable graph is visited
+        if (denseSolver != null) {
+            return denseSolver.getDistance().clone();
+        }
+        QueryWorkspace workspace = QueryWorkspace.forThread(numberOfNodes);
+        double[] distance = new double[numberOfNodes];
+        for (int i = 0; i < numberOfNodes; i++) {
+            distance[i] = workspace.distance(i);
+        }
+        return distance;
+    }
+
+    /**
+     * runs dijkstra from start without a target node and keeps the distance and
+     * previous node of every node, so the path to any node can be read without
+     * searching again.
+     * 
+     * @param start the starting node
+     * @return the shortest path tree of start
+     */
+    public ShortestPathTree shortestPathTree(int start) {
+        double[] distance = distancesFrom(start);
+        int[] parent;
+        if (denseSolver != null) {
+            parent = denseSolver.getPrevious().clone();
+        } else {
+            QueryWorkspace workspace = QueryWorkspace.forThread(numberOfNodes);
+            parent = new int[numberOfNodes];
+            for (int i = 0; i < numberOfNodes; i++) {
+                parent[i] = workspace.previous(i); // -1 for the nodes this search did not reach
+            }
+        }
+        return new ShortestPathTree(start, distance, parent);
+    }
+
+    /**
+     * Goal directed version of dijkstra (A* with landmarks, also called ALT). The
+     * heap is ordered by the distance from start plus a lower bound of the
+     * remaining distance to end taken from the landmark tables, so nodes in the
+     * direction of end are visited first and the search reaches end after visiting
+     * far fewer nodes. The lower bounds never overestimate, so the result is the
+     * same as dijkstra.
+     * 
+     * @param start     the starting node
+     * @param end       the ending or target node
+     * @param landmarks the landmark distance tables of this graph
+     * @return the weight of the shortest path
+     */
+    public double altDijkstra(int start, int end, Landmarks landmarks) {
+        checkVersion();
+        CSRGraph graph = compressed();
+        final int[] offsets = graph.offsets;
+        final int[] targets = graph.targets;
+        final double[] weights = graph.weights;
+        QueryWorkspace workspace = QueryWorkspace.forThread(numberOfNodes);
+        workspace.begin();
+        MinIndexedDoubleDHeap priorityHeap = workspace.heap(); // ordered by distance plus lower bound
+        double startBound = landmarks.lowerBound(start, end);
+        if (startBound == Double.POSITIVE_INFINITY) // the landmarks prove end can not be reached
+        {
+            return keepPath(workspace, Double.POSITIVE_INFINITY);
+        }
+        priorityHeap.insert(start, startBound);
+        workspace.setDistance(start, 0.0, -1);
+
+        while (!priorityHeap.isEmpty()) {
+            int nodeId = priorityHeap.removeMinKeyIndex();
+            workspace.visit(nodeId);
+            double nodeDistance = workspace.distance(nodeId);
+            if (nodeId == end) {
+                return keepPath(workspace, nodeDistance);
+            }
+            for (int e = offsets[nodeId], last = offsets[nodeId + 1]; e < last; e++) {
+                int next = targets[e];
+                if (workspace.isVisited(next)) {
+                    continue;
+                }
+                double newDistance = nodeDistance + weights[e];
+                if (newDistance < workspace.distance(next)) {
+                    double bound = landmarks.lowerBound(next, end);
+                    if (bound == Double.POSITIVE_INFINITY) // end can not be reached from next
+                    {
+                        continue;
+                    }
+                    workspace.setDistance(next, newDistance, nodeId);
+                    if (!priorityHeap.contains(next)) {
+                        priorityHeap.insert(next, newDistance + bound);
+                    } else {
+                        priorityHeap.decrease(next, newDistance + bound);
+                    }
+                }
+            }
+        }
+        return keepPath(workspace, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * answers the query with a precomputed contraction hierarchy of the graph. The
+     * path found is unpacked into original nodes and written into the previous
+     * array, so reconstructPath works the same as after dijkstra.
+     * 
+     * @param start     the starting node
+     * @param end       the ending or target node
+     * @param hierarchy the contraction hierarchy of this graph
+     * @return the weight of the shortest path
+     */
+    public double hierarchyDijkstra(int start, int end, ContractionHierarchy hierarchy) {
+        previous = ownPrevious();
+        return hierarchy.query(start, end, previous);
+    }
+
+    /**
+     * Bidirectional version of dijkstra. One search runs forward from start and a
+     * second one runs backward from end over the reverse graph, always expanding
+     * the side with the smaller tentative distance. Every edge that reaches a node
+     * labeled by the other side gives a candidate path. The search stops once the
+     * two smallest heap values together are not less than the best candidate,
+     * since no path through an unvisited node can be shorter. Edge weights must
+     * not be negative.
+     * 
+     * The two halves of the path are joined in the previous array, so
+     * reconstructPath works the same as after dijkstra.
+     * 
+     * @param start the starting node
+     * @param end   the ending or target node
+     * @return the weight of the shortest path
+     */
+    public double bidirectionalDijkstra(int start, int end) {
+        checkVersion();
+        CSRGraph forwardGraph = compressed(); // the reverse search needs the compressed graph
+        if (reverseGraph == null) {
+            reverseGraph = forwardGraph.reverse();
+        }
+        QueryWorkspace forward = QueryWorkspace.forThread(numberOfNodes, 0);
+        QueryWorkspace backward = QueryWorkspace.forThread(numberOfNodes, 1);
+        forward.begin();
+        backward.begin();
+        forward.heap().insert(start, 0.0);
+        forward.setDistance(start, 0.0, -1);
+        backward.heap().insert(end, 0.0);
+        backward.setDistance(end, 0.0, -1);
+
+        double best = start == end ? 0.0 : Double.POSITIVE_INFINITY; // weight of the best path found so far
+        int meet = start == end ? start : -1; // the node where the best path crosses from one search to the other
+        while (!forward.heap().isEmpty() && !backward.heap().isEmpty()) {
+            if (forward.heap().minValue() + backward.heap().minValue() >= best) // no shorter path is left
+            {
+                break;
+            }
+            boolean isForward = forward.heap().minValue() <= backward.heap().minValue();
+            QueryWorkspace side = isForward ? forward : backward;
+            QueryWorkspace other = isForward ? backward : forward;
+            CSRGraph graph = isForward ? forwardGraph : reverseGraph;
+            int nodeId = side.heap().minKeyIndex();
+            side.visit(nodeId);
+            double minValue = side.heap().removeMinValue();
+            for (int e = graph.offsets[nodeId], last = graph.offsets[nodeId + 1]; e < last; e++) {
+                int next = graph.targets[e];
+                double newDistance = minValue + graph.weights[e];
+                double through = newDistance + other.distance(next); // a path that crosses this edge
+                if (through < best) {
+                    best = through;
+                    meet = next;
+                }
+                if (side.isVisited(next) || newDistance >= side.distance(next)) {
+                    continue;
+                }
+                side.setDistance(next, newDistance, nodeId);
+                if (!side.heap().contains(next)) {
+                    side.heap().insert(next, newDistance);
+                } else {
+                    side.heap().decrease(next, newDistance);
+                }
+            }
+        }
+        keepPath(forward, best);
+        if (meet == -1) // the searches never met
+        {
+            return Double.POSITIVE_INFINITY;
+        }
+        // the backward previous of a node is the next node towards end, so walking it
+        // from meet links the second half of the path into the copied forward previous
+        // nodes
+        for (int at = meet; at != end; at = backward.previous(at)) {
+            previous[backward.previous(at)] = at;
+        }
+        return best;
+    }
+
+    /**
+     * copies the previous nodes of the search in the workspace into the array of
+     * this Dijkstra. The workspace is shared by every search of the thread, so
+     * without the copy the next search of any Dijkstra on this thread would
+     * overwrite the path.
+     * 
+     * @param workspace the workspace of the search that just ended
+     * @param distance  the result of the search
+     * @return distance
+     */
+    private double keepPath(QueryWorkspace workspace, double distance) {
+        previous = ownPrevious();
+        workspace.copyPrevious(previous);
+        return distance;
+    }
+
+    /**
+     * @return the previous array owned by this Dijkstra, created the first time it
+     *         is needed
+     */
+    private int[] ownPrevious() {
+        if (ownPrevious == null) {
+            ownPrevious = new int[numberOfNodes];
         }
-        return Double.POSITIVE_INFINITY; // if no end node could not be reached return positive infinity
+        return ownPrevious;
     }
 
     /**
-     * Reconstructs the shortest path of nodes from start nextNode end.
+     * Reconstructs the shortest path of nodes from start nextNode end. The nodes
+     * after start up nextNode end are returned counted from 1. Use
+     * shortestPathTree instead when the paths nextNode many nodes are needed.
      * 
      * @param start    the starting node
      * @param end      the ending node
@@ -126,8 +679,8 @@ public class Dijkstra {
         {
             return path; // return infinity
         }
-        for (Integer at = end; at != n - 1; at = previous[at]) // for integer a set to end go until we the data in
-                                                               // previous at index at equal at
+        for (int at = end; at != start; at = previous[at]) // for int at set to end go back until we reach the
+                                                           // starting node
         {
             path.add(at + 1); // add the node identifyer to path
         }
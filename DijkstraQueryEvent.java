@@ -0,0 +1,47 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The JFR event of one Dijkstra query, emitted by SearchStats. The duration of
+ * the event is the latency of the query. Enable it in a recording with
+ * -XX:StartFlightRecording and -Ddijkstra.stats=true.
+ */
+@Name("dijkstra.Query")
+@Label("Dijkstra Query")
+@Category({ "Dijkstra", "Search" })
+@Description("One shortest path query with its search and heap counters")
+@StackTrace(false)
+public class DijkstraQueryEvent extends jdk.jfr.Event {
+    @Label("Start")
+    public int start;
+
+    @Label("End")
+    public int end; // -1 when every node was searched
+
+    @Label("Distance")
+    public double distance;
+
+    @Label("Settled Nodes")
+    public long settledNodes;
+
+    @Label("Relaxed Edges")
+    public long relaxedEdges;
+
+    @Label("Stale Pops")
+    public long stalePops;
+
+    @Label("Heap Inserts")
+    public long heapInserts;
+
+    @Label("Heap Decreases")
+    public long heapDecreases;
+
+    @Label("Heap Removals")
+    public long heapRemovals;
+
+    @Label("Sift Steps")
+    public long siftSteps;
+}
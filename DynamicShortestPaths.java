@@ -0,0 +1,284 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shortest paths from one source that are kept up to date while edge weights
+ * change. The distance and previous arrays of the last search are kept, and
+ * after every updateEdge only the part of the shortest path tree the change
+ * can affect is searched again, in the style of Ramalingam and Reps:
+ *
+ * <pre>
+ * decrease  when the edge u to v now gives v a shorter distance, a Dijkstra
+ *           search starts at v and only continues through nodes whose
+ *           distance goes down
+ * increase  when the edge u to v is the tree edge of v, only the nodes below
+ *           v in the tree can get longer. They are given the best distance
+ *           over edges from nodes outside that subtree and then settled by a
+ *           Dijkstra search restricted to the subtree
+ * </pre>
+ *
+ * Every other change can not alter a distance and costs nothing. The work of a
+ * repair is proportional to the edges of the affected nodes, not to the size of
+ * the graph. Edge weights must not be negative. Edges should be changed
+ * through this class; a change made to the graph directly is noticed from its
+ * version and costs a full recompute on the next updateEdge.
+ */
+public class DynamicShortestPaths {
+    // instance variables
+    private final graphEdge targetGraph; // the graph the paths are kept for
+    private final int nodes; // number of nodes in graph
+    private final int source; // the starting node of every path
+    private final List<List<InEdge>> incoming; // the edges entering every node
+    private final MinIndexedDoubleDHeap priorityHeap; // the heap of the repair searches
+    private final double[] distance; // the weight of the shortest path to every node
+    private final int[] previous; // the previous node on the shortest path to every node, -1 if none
+    private final int[] mark; // stamp of the last repair that put a node in the affected subtree
+    private int stamp; // the stamp of the current repair
+    private long repairedNodes; // the number of nodes searched again by all repairs so far
+    private long graphVersion; // the version of the graph the paths were computed for
+
+    /**
+     * computes the shortest paths from source and indexes the incoming edges
+     *
+     * @param g      the graph to keep the paths for
+     * @param source the starting node
+     */
+    public DynamicShortestPaths(graphEdge g, int source) {
+        if (source < 0 || source >= g.nodes) {
+            throw new IllegalArgumentException("Invalid node index");
+        }
+        targetGraph = g;
+        nodes = g.nodes;
+        this.source = source;
+        incoming = new ArrayList<>(nodes);
+        for (int i = 0; i < nodes; i++) {
+            incoming.add(new ArrayList<>());
+        }
+        priorityHeap = new MinIndexedDoubleDHeap(4, nodes);
+        distance = new double[nodes];
+        previous = new int[nodes];
+        mark = new int[nodes];
+        recompute();
+    }
+
+    /**
+     * indexes the incoming edges again, throws away the current tree and searches
+     * the whole graph again
+     */
+    public void recompute() {
+        for (List<InEdge> in : incoming) {
+            in.clear();
+        }
+        for (int u = 0; u < nodes; u++) {
+            for (Edge edge : targetGraph.graph.get(u)) {
+                incoming.get(edge.nextNode).add(new InEdge(u, edge));
+            }
+        }
+        graphVersion = targetGraph.getVersion();
+        for (int i = 0; i < nodes; i++) {
+            distance[i] = Double.POSITIVE_INFINITY;
+            previous[i] = -1;
+        }
+        distance[source] = 0.0;
+        priorityHeap.clear();
+        priorityHeap.insert(source, 0.0);
+        settle(false);
+    }
+
+    /**
+     * changes the weight of the edge from u to v in the graph, adding it if there
+     * is none, and repairs the shortest paths.
+     *
+     * @param u      the starting node
+     * @param v      the ending node
+     * @param weight the new weight of the edge, not negative
+     */
+    public void updateEdge(int u, int v, double weight) {
+        if (u < 0 || u >= nodes || v < 0 || v >= nodes) {
+            throw new IllegalArgumentException("Invalid node index");
+        }
+        if (!(weight >= 0.0)) {
+            throw new IllegalArgumentException("edge weights must not be negative; received: " + weight);
+        }
+        if (targetGraph.getVersion() != graphVersion) // the graph was changed directly
+        {
+            recompute();
+        }
+        if (!targetGraph.updateEdge(u, v, weight)) // a new edge, index it
+        {
+            List<Edge> edges = targetGraph.graph.get(u);
+            incoming.get(v).add(new InEdge(u, edges.get(edges.size() - 1)));
+        }
+        graphVersion = targetGraph.getVersion();
+        double through = distance[u] + weight; // the distance of v over the changed edge
+        if (through < distance[v]) {
+            decreaseFrom(u, v, through);
+        } else if (previous[v] == u && through > distance[v]) {
+            increaseBelow(v);
+        }
+    }
+
+    /**
+     * @return the weight of the shortest path to every node, not copied
+     */
+    public double[] getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return the previous node of every node, -1 for the source and unreachable
+     *         nodes, not copied
+     */
+    public int[] getPrevious() {
+        return previous;
+    }
+
+    /**
+     * @param v a node
+     * @return the weight of the shortest path from the source to v
+     */
+    public double distance(int v) {
+        return distance[v];
+    }
+
+    /**
+     * @param v a node
+     * @return the nodes of the shortest path from the source to v, empty if v can
+     *         not be reached
+     */
+    public List<Integer> path(int v) {
+        List<Integer> path = new ArrayList<>();
+        if (distance[v] == Double.POSITIVE_INFINITY) {
+            return path;
+        }
+        for (int at = v; at != -1; at = previous[at]) {
+            path.add(at);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * @return the starting node of every path
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @return the number of nodes searched again by all repairs so far
+     */
+    public long getRepairedNodes() {
+        return repairedNodes;
+    }
+
+    // ---------------------------Helper
+    // functions-----------------------------------
+
+    /**
+     * v got shorter through u, spread the improvement
+     */
+    private void decreaseFrom(int u, int v, double through) {
+        distance[v] = through;
+        previous[v] = u;
+        priorityHeap.clear();
+        priorityHeap.insert(v, through);
+        settle(false);
+    }
+
+    /**
+     * the tree edge of v got heavier, search the subtree below v again
+     */
+    private void increaseBelow(int v) {
+        if (++stamp == Integer.MAX_VALUE) // the stamps would overflow so reset them once
+        {
+            Arrays.fill(mark, 0);
+            stamp = 1;
+        }
+        List<Integer> subtree = new ArrayList<>(); // v and every node whose tree path passes v
+        subtree.add(v);
+        mark[v] = stamp;
+        for (int i = 0; i < subtree.size(); i++) // breadth first over the tree edges
+        {
+            int at = subtree.get(i);
+            for (Edge edge : targetGraph.graph.get(at)) {
+                int child = edge.nextNode;
+                if (previous[child] == at && mark[child] != stamp) {
+                    mark[child] = stamp;
+                    subtree.add(child);
+                }
+            }
+        }
+        for (int a : subtree) // forget the old paths of the subtree
+        {
+            distance[a] = Double.POSITIVE_INFINITY;
+            previous[a] = -1;
+        }
+        priorityHeap.clear();
+        for (int a : subtree) // the best way into the subtree from outside it
+        {
+            for (InEdge in : incoming.get(a)) {
+                if (mark[in.from] == stamp) {
+                    continue;
+                }
+                double through = distance[in.from] + in.edge.weight;
+                if (through < distance[a]) {
+                    distance[a] = through;
+                    previous[a] = in.from;
+                }
+            }
+            if (distance[a] < Double.POSITIVE_INFINITY) {
+                priorityHeap.insert(a, distance[a]);
+            }
+        }
+        settle(true);
+    }
+
+    /**
+     * runs Dijkstra from the nodes in the heap. A node is only relaxed into when
+     * its distance goes down, so the search stops where the old paths are still
+     * the shortest. When inSubtree is true only nodes marked with the current
+     * stamp are relaxed into, since no other distance can change.
+     */
+    private void settle(boolean inSubtree) {
+        while (!priorityHeap.isEmpty()) {
+            int nodeId = priorityHeap.minKeyIndex();
+            double minValue = priorityHeap.removeMinValue();
+            repairedNodes++;
+            for (Edge edge : targetGraph.graph.get(nodeId)) {
+                int next = edge.nextNode;
+                if (inSubtree && mark[next] != stamp) {
+                    continue;
+                }
+                double newDistance = minValue + edge.weight;
+                if (newDistance < distance[next]) {
+                    distance[next] = newDistance;
+                    previous[next] = nodeId;
+                    if (!priorityHeap.contains(next)) {
+                        priorityHeap.insert(next, newDistance);
+                    } else {
+                        priorityHeap.decrease(next, newDistance);
+                    }
+                }
+            }
+        }
+    }
+
+    // -------------------nested classes--------------------------------------------
+
+    /**
+     * an edge entering a node, sharing the Edge object of the graph so weight
+     * changes are seen
+     */
+    private static class InEdge {
+        final int from; // the starting node
+        final Edge edge; // the edge in the graph
+
+        InEdge(int from, Edge edge) {
+            this.from = from;
+            this.edge = edge;
+        }
+    }
+}
@@ -0,0 +1,459 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.SplittableRandom;
+
+/**
+ * Generates graphs and actor problems for load testing. Every generator method
+ * starts from the seed again, so the same seed and settings always give the
+ * same graph, in memory or written out.
+ *
+ * The input.txt format can only describe complete actor graphs, so actor
+ * problems are written in that format by writeActorProblem. The writer streams
+ * the discount matrix one number at a time, so inputs of many gigabytes take
+ * no more memory than the base costs. The sparse kinds (random, grid and power
+ * law) are handed edge by edge to an EdgeSink such as graphEdge.addEdge or
+ * CSRGraph.Builder.addEdge.
+ *
+ * Weights, costs and discounts are rounded to a fixed number of decimals, so a
+ * problem written to a file reads back exactly as it was generated in memory.
+ */
+public class GraphGenerator {
+    private static final int BUFFER_BYTES = 1 << 20; // bytes written to the stream at a time
+    private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+            100000000L, 1000000000L }; // the scales of up to 9 decimals
+
+    // instance variables
+    private final long seed; // the seed every generator method starts from
+    private Distribution weights = Distribution.integers(1, 100); // the weights of sparse graph edges
+    private Distribution costs = Distribution.integers(1, 1000); // the base costs of actors, whole dollars
+    private Distribution discounts = Distribution.uniform(0.0, 0.5); // the discounts of actor pairs
+    private int decimals = 2; // the decimals every number is rounded to
+
+    /**
+     * a generator with integer weights from 1 to 100, whole dollar costs from 1
+     * to 1000 and discounts from 0 to 0.5 with 2 decimals
+     *
+     * @param seed the seed of the random numbers
+     */
+    public GraphGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * generates an actor problem in the input.txt format from the command line
+     *
+     * @param args the number of actors, the seed and the output file
+     * @throws IOException if the file can not be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.out.println("usage: java GraphGenerator <actors> <seed> <output.txt>");
+            return;
+        }
+        int actors = Integer.parseInt(args[0]);
+        try (OutputStream out = new FileOutputStream(args[2])) {
+            new GraphGenerator(Long.parseLong(args[1])).writeActorProblem(actors, actors, out);
+        }
+    }
+
+    /**
+     * @param weights the distribution of the weights of sparse graph edges
+     * @return this generator
+     */
+    public GraphGenerator withWeights(Distribution weights) {
+        this.weights = weights;
+        return this;
+    }
+
+    /**
+     * @param costs the distribution of the base costs of actors
+     * @return this generator
+     */
+    public GraphGenerator withCosts(Distribution costs) {
+        this.costs = costs;
+        return this;
+    }
+
+    /**
+     * @param discounts the distribution of the discounts of actor pairs
+     * @return this generator
+     */
+    public GraphGenerator withDiscounts(Distribution discounts) {
+        this.discounts = discounts;
+        return this;
+    }
+
+    /**
+     * @param decimals the decimals every number is rounded to, 0 to 9
+     * @return this generator
+     */
+    public GraphGenerator withDecimals(int decimals) {
+        if (decimals < 0 || decimals >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("decimals must be from 0 to 9; received: " + decimals);
+        }
+        this.decimals = decimals;
+        return this;
+    }
+
+    // -------------------sparse graphs---------------------------------------------
+
+    /**
+     * a random graph where every node has degree edges to other nodes chosen
+     * uniformly
+     *
+     * @param n      the number of nodes
+     * @param degree the edges leaving every node
+     * @param sink   receives the edges
+     */
+    public void randomSparse(int n, int degree, EdgeSink sink) {
+        if (n < 2) {
+            throw new IllegalArgumentException("a random graph needs at least 2 nodes; received: " + n);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < degree; i++) {
+                int v = random.nextInt(n - 1);
+                sink.edge(u, v >= u ? v + 1 : v, round(weights.next(random))); // never a loop
+            }
+        }
+    }
+
+    /**
+     * a road like grid: node r * cols + c has an edge in both directions to each
+     * of its four neighbours, every edge with its own weight
+     *
+     * @param rows the number of rows
+     * @param cols the number of columns
+     * @param sink receives the edges
+     */
+    public void grid(int rows, int cols, EdgeSink sink) {
+        if ((long) rows * cols > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("grid too large: " + rows + " x " + cols);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int u = r * cols + c;
+                if (c + 1 < cols) {
+                    sink.edge(u, u + 1, round(weights.next(random)));
+                    sink.edge(u + 1, u, round(weights.next(random)));
+                }
+                if (r + 1 < rows) {
+                    sink.edge(u, u + cols, round(weights.next(random)));
+                    sink.edge(u + cols, u, round(weights.next(random)));
+                }
+            }
+        }
+    }
+
+    /**
+     * a power law graph by preferential attachment (Barabasi-Albert): every new
+     * node links to edgesPerNode earlier nodes picked in proportion to their
+     * degree, with an edge in both directions. A few hubs end up with most of
+     * the edges.
+     *
+     * @param n            the number of nodes
+     * @param edgesPerNode the links of every new node
+     * @param sink         receives the edges
+     */
+    public void powerLaw(int n, int edgesPerNode, EdgeSink sink) {
+        if (edgesPerNode < 1 || n <= edgesPerNode) {
+            throw new IllegalArgumentException("need more nodes than edges per node; received: " + n + " and "
+                    + edgesPerNode);
+        }
+        if ((long) n * edgesPerNode * 2 > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("power law graph too large: " + n + " x " + edgesPerNode);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] endpoints = new int[2 * n * edgesPerNode]; // every node once per edge it has
+        int size = 0;
+        for (int u = 0; u <= edgesPerNode; u++) // a small complete core to start from
+        {
+            for (int v = 0; v < u; v++) {
+                sink.edge(u, v, round(weights.next(random)));
+                sink.edge(v, u, round(weights.next(random)));
+                endpoints[size++] = u;
+                endpoints[size++] = v;
+            }
+        }
+        for (int u = edgesPerNode + 1; u < n; u++) {
+            int linked = size; // the endpoints before u's own
+            for (int i = 0; i < edgesPerNode; i++) {
+                int v = endpoints[random.nextInt(linked)]; // picked in proportion to degree
+                sink.edge(u, v, round(weights.next(random)));
+                sink.edge(v, u, round(weights.next(random)));
+                endpoints[size++] = u;
+                endpoints[size++] = v;
+            }
+        }
+    }
+
+    /**
+     * the graph Menu builds for a generated actor problem: node n is the store
+     * with an edge of the base cost to every actor, and actor i has an edge to
+     * every actor j costing the base cost of j times one minus the discount, or
+     * the full base cost when i equals j. Only the base costs are held in
+     * memory.
+     *
+     * @param n    the number of actors
+     * @param sink receives the edges
+     */
+    public void completeActors(int n, EdgeSink sink) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] baseCost = nextCosts(random, n);
+        for (int j = 0; j < n; j++) {
+            sink.edge(n, j, baseCost[j]);
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double discount = round(discounts.next(random));
+                sink.edge(i, j, i == j ? baseCost[j] : baseCost[j] * (1 - discount));
+            }
+        }
+    }
+
+    /**
+     * @param n      the number of nodes
+     * @param degree the edges leaving every node
+     * @return a random graph, see randomSparse
+     */
+    public graphEdge sparseGraph(int n, int degree) {
+        graphEdge g = new graphEdge(n);
+        randomSparse(n, degree, g::addEdge);
+        return g;
+    }
+
+    /**
+     * @param rows the number of rows
+     * @param cols the number of columns
+     * @return a grid graph, see grid
+     */
+    public graphEdge gridGraph(int rows, int cols) {
+        graphEdge g = new graphEdge(rows * cols);
+        grid(rows, cols, g::addEdge);
+        return g;
+    }
+
+    /**
+     * @param n            the number of nodes
+     * @param edgesPerNode the links of every new node
+     * @return a power law graph, see powerLaw
+     */
+    public graphEdge powerLawGraph(int n, int edgesPerNode) {
+        graphEdge g = new graphEdge(n);
+        powerLaw(n, edgesPerNode, g::addEdge);
+        return g;
+    }
+
+    /**
+     * @param n the number of actors
+     * @return the graph of a generated actor problem with the store as node n
+     */
+    public graphEdge actorGraph(int n) {
+        graphEdge g = new graphEdge(n + 1);
+        completeActors(n, g::addEdge);
+        return g;
+    }
+
+    // -------------------actor problems--------------------------------------------
+
+    /**
+     * generates an actor problem in memory. It holds the same numbers as the file
+     * writeActorProblem writes with the same seed.
+     *
+     * @param n      the number of actors
+     * @param target the actor to hire, counted from 1
+     * @return the problem
+     */
+    public ActorProblem actorProblem(int n, int target) {
+        if ((long) n * n > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("too many actors to hold in memory: " + n);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] baseCost = nextCosts(random, n);
+        double[] discount = new double[n * n];
+        for (int i = 0; i < discount.length; i++) {
+            discount[i] = round(discounts.next(random));
+        }
+        return new ActorProblem(n, baseCost, discount, target);
+    }
+
+    /**
+     * writes an actor problem in the input.txt format: the number of actors, the
+     * base costs on one line, one line of discounts per actor and the target.
+     * The stream is written through a buffer and flushed, but not closed.
+     *
+     * @param n      the number of actors
+     * @param target the actor to hire, counted from 1
+     * @param out    the stream to write to
+     * @throws IOException if the stream can not be written
+     */
+    public void writeActorProblem(int n, int target, OutputStream out) throws IOException {
+        if (n <= 0 || target < 1 || target > n) {
+            throw new IllegalArgumentException("invalid actor problem: " + n + " actors, target " + target);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        AsciiWriter writer = new AsciiWriter(out);
+        writer.writeLong(n);
+        writer.write('\n');
+        for (int j = 0; j < n; j++) {
+            writer.writeFixed(scaled(costs.next(random)), decimals);
+            writer.write(j + 1 < n ? ' ' : '\n');
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                writer.writeFixed(scaled(discounts.next(random)), decimals);
+                writer.write(j + 1 < n ? ' ' : '\n');
+            }
+        }
+        writer.writeLong(target); // no line break after the target, the Scanner reader rejects one
+        writer.flush();
+    }
+
+    // ---------------------------Helper
+    // functions-----------------------------------
+
+    /**
+     * the next n base costs
+     */
+    private double[] nextCosts(SplittableRandom random, int n) {
+        double[] baseCost = new double[n];
+        for (int j = 0; j < n; j++) {
+            baseCost[j] = round(costs.next(random));
+        }
+        return baseCost;
+    }
+
+    /**
+     * value rounded to the decimals of this generator, as an integer number of
+     * the smallest decimal
+     */
+    private long scaled(double value) {
+        return Math.round(value * POWERS_OF_TEN[decimals]);
+    }
+
+    /**
+     * value rounded to the decimals of this generator. Dividing the scaled
+     * integer gives exactly the double ByteTokenizer reads from its digits.
+     */
+    private double round(double value) {
+        return (double) scaled(value) / POWERS_OF_TEN[decimals];
+    }
+
+    // -------------------nested interfaces and classes-----------------------------
+
+    /**
+     * receives the edges of a generated graph one at a time
+     */
+    public interface EdgeSink {
+
+        /**
+         * @param from   the starting node
+         * @param to     the ending node
+         * @param weight the weight of the edge
+         */
+        void edge(int from, int to, double weight);
+    }
+
+    /**
+     * a distribution of random numbers
+     */
+    public interface Distribution {
+
+        /**
+         * @param random the source of randomness
+         * @return the next number
+         */
+        double next(SplittableRandom random);
+
+        /**
+         * @param low  the smallest number
+         * @param high the bound of the numbers, never returned
+         * @return numbers spread evenly from low up to high
+         */
+        static Distribution uniform(double low, double high) {
+            return random -> low + random.nextDouble() * (high - low);
+        }
+
+        /**
+         * @param low  the smallest number
+         * @param high the largest number
+         * @return whole numbers spread evenly from low to high
+         */
+        static Distribution integers(long low, long high) {
+            return random -> random.nextLong(low, high + 1);
+        }
+
+        /**
+         * @param mean the mean of the numbers
+         * @return exponentially distributed numbers, many small and a few large
+         */
+        static Distribution exponential(double mean) {
+            return random -> -mean * Math.log(1.0 - random.nextDouble());
+        }
+
+        /**
+         * @param value the number
+         * @return always value
+         */
+        static Distribution constant(double value) {
+            return random -> value;
+        }
+    }
+
+    /**
+     * writes numbers as ASCII digits into a byte buffer without creating a String
+     * per number
+     */
+    private static class AsciiWriter {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BUFFER_BYTES];
+        private final byte[] digits = new byte[20]; // the digits of one number, last digit first
+        private int size;
+
+        AsciiWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        void write(int b) throws IOException {
+            if (size == buffer.length) {
+                out.write(buffer, 0, size);
+                size = 0;
+            }
+            buffer[size++] = (byte) b;
+        }
+
+        void writeLong(long value) throws IOException {
+            writeFixed(value, 0);
+        }
+
+        /**
+         * writes scaled divided by 10^decimals with exactly decimals digits after
+         * the point
+         */
+        void writeFixed(long scaled, int decimals) throws IOException {
+            if (scaled < 0) {
+                write('-');
+                scaled = -scaled;
+            }
+            int count = 0;
+            do {
+                digits[count++] = (byte) ('0' + scaled % 10);
+                scaled /= 10;
+            } while (scaled != 0 || count <= decimals); // at least one digit before the point
+            for (int i = count - 1; i >= 0; i--) {
+                if (i == decimals - 1) {
+                    write('.');
+                }
+                write(digits[i]);
+            }
+        }
+
+        void flush() throws IOException {
+            out.write(buffer, 0, size);
+            size = 0;
+            out.flush();
+        }
+    }
+}
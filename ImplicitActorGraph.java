@@ -0,0 +1,145 @@
+/**
+ * The store and actor graph of an ActorProblem without any stored edges. The
+ * weight of every edge is a function of the base cost of the hired actor and
+ * the discount matrix, so the cursor computes it when the edge is visited:
+ * node n is the store with an edge of the base cost to every actor, and actor i
+ * reaches actor j for the base cost of j times one minus the discount, or the
+ * full base cost when i equals j. The graph takes no memory beyond the two
+ * arrays it is built from.
+ */
+public class ImplicitActorGraph implements NeighborGraph {
+    // instance variables
+    private final int actors; // the number of actors, also the index of the store node
+    private final double[] baseCost; // the cost of hiring every actor directly
+    private final double[] discount; // the discount matrix row by row
+    private final boolean negative; // true if some edge weight is below 0
+
+    /**
+     * @param baseCost the cost of hiring every actor directly
+     * @param discount the n by n discount matrix row by row
+     */
+    public ImplicitActorGraph(double[] baseCost, double[] discount) {
+        if (discount.length != (long) baseCost.length * baseCost.length) {
+            throw new IllegalArgumentException("discount matrix does not match " + baseCost.length + " actors");
+        }
+        actors = baseCost.length;
+        this.baseCost = baseCost;
+        this.discount = discount;
+        negative = findNegativeWeight(baseCost, discount);
+    }
+
+    /**
+     * @param problem the problem to view as a graph, its arrays are shared
+     */
+    public ImplicitActorGraph(ActorProblem problem) {
+        this(problem.getBaseCost(), problem.getDiscount());
+    }
+
+    /**
+     * @return the number of actors plus the store node
+     */
+    @Override
+    public int size() {
+        return actors + 1;
+    }
+
+    /**
+     * @return the number of edges, every node has an edge to every actor
+     */
+    @Override
+    public long edgeCount() {
+        return (long) (actors + 1) * actors;
+    }
+
+    /**
+     * @return the number of actors, also the index of the store node
+     */
+    public int getActors() {
+        return actors;
+    }
+
+    /**
+     * @return the cost of hiring every actor directly, not copied
+     */
+    public double[] getBaseCost() {
+        return baseCost;
+    }
+
+    /**
+     * @return the discount matrix row by row, not copied
+     */
+    public double[] getDiscount() {
+        return discount;
+    }
+
+    /**
+     * @return true if some edge weight is below 0, as a discount above 1 makes it.
+     *         The arrays are read when the graph is created and must not change
+     *         afterwards.
+     */
+    public boolean hasNegativeWeight() {
+        return negative;
+    }
+
+    /**
+     * @return a cursor computing the edge weights of one row at a time
+     */
+    @Override
+    public EdgeCursor cursor() {
+        return new EdgeCursor() {
+            private int node; // the current starting node
+            private int row; // where the discounts of node start
+            private int next; // the current ending actor
+
+            @Override
+            public void reset(int node) {
+                this.node = node;
+                row = node * actors;
+                next = -1;
+            }
+
+            @Override
+            public boolean next() {
+                return ++next < actors;
+            }
+
+            @Override
+            public int target() {
+                return next;
+            }
+
+            @Override
+            public double weight() {
+                if (node == actors || node == next) // from the store or the actor itself
+                {
+                    return baseCost[next];
+                }
+                return baseCost[next] * (1 - discount[row + next]);
+            }
+        };
+    }
+
+    // ---------------------------Helper
+    // functions-----------------------------------
+
+    /**
+     * true if a base cost or the discounted cost of an actor hiring another is
+     * below 0. The discount of an actor hiring itself is never used.
+     */
+    private static boolean findNegativeWeight(double[] baseCost, double[] discount) {
+        int n = baseCost.length;
+        for (int j = 0; j < n; j++) {
+            if (baseCost[j] < 0.0) {
+                return true;
+            }
+        }
+        for (int i = 0, row = 0; i < n; i++, row += n) {
+            for (int j = 0; j < n; j++) {
+                if (baseCost[j] * (1 - discount[row + j]) < 0.0 && j != i) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * A priority queue of the keys 0 to n - 1 ordered by a double value, as used
+ * by Dijkstra's algorithm: a key is inserted once, its value can be decreased
+ * while it is queued and the key with the smallest value is removed first.
+ * MinIndexedDoubleDHeap is the general implementation. Monotone queues such as
+ * DialQueue and RadixHeap also require that no value is below the value last
+ * removed, which always holds for Dijkstra with non negative edge weights.
+ */
+public interface IndexedPriorityQueue {
+
+    /**
+     * @return the number of keys in the queue
+     */
+    int size();
+
+    /**
+     * @return true if the queue holds no keys
+     */
+    boolean isEmpty();
+
+    /**
+     * @param key the key to be looked up
+     * @return true if key is in the queue
+     */
+    boolean contains(int key);
+
+    /**
+     * @return the key with the smallest value, not removed
+     */
+    int minKeyIndex();
+
+    /**
+     * @return the smallest value, not removed
+     */
+    double minValue();
+
+    /**
+     * removes the key with the smallest value
+     *
+     * @return the removed key
+     */
+    int removeMinKeyIndex();
+
+    /**
+     * removes the key with the smallest value
+     *
+     * @return the value of the removed key
+     */
+    double removeMinValue();
+
+    /**
+     * @param key   the key to be inserted, not in the queue
+     * @param value the value of key
+     */
+    void insert(int key, double value);
+
+    /**
+     * lowers the value of a queued key, nothing happens if value is not smaller
+     *
+     * @param key   the key to change
+     * @param value the new value
+     */
+    void decrease(int key, double value);
+
+    /**
+     * removes every key from the queue
+     */
+    void clear();
+
+    /**
+     * counts the operations of this queue for a query. Nothing is counted unless
+     * SearchStats.ENABLED is true.
+     *
+     * @param query the query to count for, null to stop counting
+     */
+    void setStats(SearchStats.Query query);
+}
@@ -0,0 +1,131 @@
+/**
+ * Landmark distance tables used as lower bounds by Dijkstra.altDijkstra. For
+ * every landmark L the distance from L to every node and from every node to L
+ * are stored. By the triangle inequality d(v, t) is at least d(L, t) - d(L, v)
+ * and at least d(v, L) - d(t, L), and the largest of these values over all
+ * landmarks is a lower bound of the remaining distance from v to t.
+ *
+ * The tables are stored row by row in flat double arrays, the distances of
+ * landmark l start at index l * nodes.
+ */
+public class Landmarks {
+    // instance variables
+    private final int nodes; // number of nodes in the graph
+    private final int[] landmarks; // the chosen landmark nodes
+    private final double[] fromLandmark; // d(landmark, v) for every landmark and node
+    private final double[] toLandmark; // d(v, landmark) for every landmark and node
+
+    /**
+     * constructs the tables from already computed distances
+     *
+     * @param n            number of nodes
+     * @param landmarks    the landmark nodes
+     * @param fromLandmark the distances from the landmarks, row by row
+     * @param toLandmark   the distances to the landmarks, row by row
+     */
+    protected Landmarks(int n, int[] landmarks, double[] fromLandmark, double[] toLandmark) {
+        if (fromLandmark.length != landmarks.length * n || toLandmark.length != landmarks.length * n) {
+            throw new IllegalArgumentException("inconsistent landmark tables");
+        }
+        nodes = n;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * picks k landmarks by farthest selection and computes their distance tables.
+     * The first landmark is the node farthest from node 0, every following one is
+     * the node farthest from all landmarks chosen so far, which spreads the
+     * landmarks around the edge of the graph where they give the best bounds.
+     *
+     * @param g the graph to preprocess
+     * @param k the number of landmarks
+     * @return the landmark tables
+     */
+    public static Landmarks select(CSRGraph g, int k) {
+        int n = g.size();
+        if (k <= 0 || k > n) {
+            throw new IllegalArgumentException("number of landmarks must be in 1.." + n + "; received: " + k);
+        }
+        Dijkstra forward = new Dijkstra(g);
+        Dijkstra backward = new Dijkstra(g.reverse());
+        int[] chosen = new int[k];
+        double[] fromLandmark = new double[k * n];
+        double[] toLandmark = new double[k * n];
+        double[] score = new double[n]; // the distance of every node to the closest landmark
+        double[] seed = forward.distancesFrom(0);
+        for (int v = 0; v < n; v++) {
+            score[v] = seed[v];
+        }
+        for (int l = 0; l < k; l++) {
+            int landmark = farthest(score);
+            chosen[l] = landmark;
+            double[] from = forward.distancesFrom(landmark);
+            double[] to = backward.distancesFrom(landmark);
+            System.arraycopy(from, 0, fromLandmark, l * n, n);
+            System.arraycopy(to, 0, toLandmark, l * n, n);
+            for (int v = 0; v < n; v++) {
+                score[v] = Math.min(score[v], from[v] + to[v]);
+            }
+            score[landmark] = -1.0; // never choose the same node twice
+        }
+        return new Landmarks(n, chosen, fromLandmark, toLandmark);
+    }
+
+    /**
+     * finds the node with the largest score. Unreachable nodes have a score of
+     * infinity and are preferred, a landmark in their part of the graph is the only
+     * way to get bounds there.
+     *
+     * @param score the score of every node
+     * @return the index of the largest score
+     */
+    private static int farthest(double[] score) {
+        int best = 0;
+        for (int v = 1; v < score.length; v++) {
+            if (score[v] > score[best]) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the number of landmarks
+     */
+    public int count() {
+        return landmarks.length;
+    }
+
+    /**
+     * @param i the landmark number
+     * @return the node of landmark i
+     */
+    public int landmark(int i) {
+        return landmarks[i];
+    }
+
+    /**
+     * lower bound of the distance from node v to node t. Returns positive infinity
+     * when a landmark proves that t can not be reached from v.
+     *
+     * @param v the node the remaining path starts at
+     * @param t the target node
+     * @return a value that is never larger than the shortest distance from v to t
+     */
+    public double lowerBound(int v, int t) {
+        double bound = 0.0;
+        for (int l = 0, row = 0; l < landmarks.length; l++, row += nodes) {
+            double forward = fromLandmark[row + t] - fromLandmark[row + v]; // NaN when both are unreachable
+            double backward = toLandmark[row + v] - toLandmark[row + t];
+            if (forward > bound) {
+                bound = forward;
+            }
+            if (backward > bound) {
+                bound = backward;
+            }
+        }
+        return bound;
+    }
+}
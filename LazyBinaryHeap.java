@@ -0,0 +1,216 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary heap with lazy deletion. Instead of finding and sifting the entry
+ * of a key on every decrease, a new (value, key) entry is pushed and the old
+ * one is left behind. An entry is stale once its key was removed or got a
+ * smaller value, and stale entries are dropped when they reach the top. The
+ * heap needs no position map, so a decrease is a plain push up from the end,
+ * at the price of up to one entry per decrease. A heap is not thread safe.
+ */
+public class LazyBinaryHeap implements IndexedPriorityQueue {
+    // instance variables
+    private final int maxElements; // the number of keys the heap can hold
+    private final double[] best; // the current value of every queued key
+    private final boolean[] queued; // true for every key in the heap
+    private int[] entryKeys; // the key of every entry in heap order
+    private double[] entryValues; // the value of every entry in heap order
+    private int entries; // the number of entries, stale ones included
+    private int currentNumNodes; // the number of queued keys
+    private SearchStats.Query stats; // the query the operations are counted for, null for none
+
+    /**
+     * @param maxSize the number of keys the heap can hold
+     */
+    public LazyBinaryHeap(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        maxElements = maxSize;
+        best = new double[maxSize];
+        queued = new boolean[maxSize];
+        entryKeys = new int[maxSize];
+        entryValues = new double[maxSize];
+    }
+
+    @Override
+    public int size() {
+        return currentNumNodes;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return currentNumNodes == 0;
+    }
+
+    @Override
+    public boolean contains(int key) {
+        keyInBoundsOrThrow(key);
+        return queued[key];
+    }
+
+    /**
+     * drops stale entries from the top until the top entry is current
+     */
+    @Override
+    public int minKeyIndex() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Priority queue underflow");
+        }
+        while (!queued[entryKeys[0]] || entryValues[0] != best[entryKeys[0]]) {
+            pop();
+        }
+        return entryKeys[0];
+    }
+
+    @Override
+    public double minValue() {
+        return best[minKeyIndex()];
+    }
+
+    @Override
+    public int removeMinKeyIndex() {
+        int key = minKeyIndex();
+        pop();
+        queued[key] = false;
+        currentNumNodes--;
+        if (SearchStats.ENABLED && stats != null) {
+            stats.removals++;
+        }
+        return key;
+    }
+
+    @Override
+    public double removeMinValue() {
+        int key = removeMinKeyIndex();
+        return best[key];
+    }
+
+    @Override
+    public void insert(int key, double value) {
+        if (contains(key)) {
+            throw new IllegalArgumentException("index already exists; received: " + key);
+        }
+        valueNotNaNOrThrow(value);
+        queued[key] = true;
+        best[key] = value;
+        push(key, value);
+        currentNumNodes++;
+        if (SearchStats.ENABLED && stats != null) {
+            stats.inserts++;
+        }
+    }
+
+    /**
+     * pushes a new entry, the old entry of key becomes stale
+     */
+    @Override
+    public void decrease(int key, double value) {
+        if (!contains(key)) {
+            throw new NoSuchElementException("Index does not exist; received: " + key);
+        }
+        valueNotNaNOrThrow(value);
+        if (value < best[key]) {
+            best[key] = value;
+            push(key, value);
+            if (SearchStats.ENABLED && stats != null) {
+                stats.decreases++;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < entries; i++) {
+            queued[entryKeys[i]] = false;
+        }
+        entries = 0;
+        currentNumNodes = 0;
+    }
+
+    @Override
+    public void setStats(SearchStats.Query query) {
+        stats = query;
+    }
+
+    // ---------------------------Helper
+    // functions-----------------------------------
+
+    /**
+     * adds an entry at the end and moves it up to its place
+     */
+    private void push(int key, double value) {
+        if (entries == entryKeys.length) // grow the entries when full
+        {
+            entryKeys = Arrays.copyOf(entryKeys, entries * 2);
+            entryValues = Arrays.copyOf(entryValues, entries * 2);
+        }
+        int i = entries++;
+        int steps = 0; // the number of entries moved down
+        while (i > 0) {
+            int p = (i - 1) >>> 1; // the parent position
+            if (!(value < entryValues[p])) {
+                break;
+            }
+            entryKeys[i] = entryKeys[p];
+            entryValues[i] = entryValues[p];
+            i = p;
+            steps++;
+        }
+        entryKeys[i] = key;
+        entryValues[i] = value;
+        if (SearchStats.ENABLED && stats != null) {
+            stats.sift(steps);
+        }
+    }
+
+    /**
+     * removes the top entry and moves the last entry down from the top
+     */
+    private void pop() {
+        int last = --entries;
+        int key = entryKeys[last];
+        double value = entryValues[last];
+        int i = 0;
+        int steps = 0; // the number of entries moved up
+        while (true) {
+            int c = 2 * i + 1; // the first child position
+            if (c >= last) {
+                break;
+            }
+            if (c + 1 < last && entryValues[c + 1] < entryValues[c]) {
+                c++;
+            }
+            if (!(entryValues[c] < value)) {
+                break;
+            }
+            entryKeys[i] = entryKeys[c];
+            entryValues[i] = entryValues[c];
+            i = c;
+            steps++;
+        }
+        entryKeys[i] = key;
+        entryValues[i] = value;
+        if (SearchStats.ENABLED && stats != null) {
+            stats.sift(steps);
+        }
+    }
+
+    /**
+     * NaN can not be ordered
+     */
+    private void valueNotNaNOrThrow(double value) {
+        if (Double.isNaN(value))
+            throw new IllegalArgumentException("value cannot be NaN");
+    }
+
+    /**
+     * checks whether the key is within the bounds of the heap
+     */
+    private void keyInBoundsOrThrow(int key) {
+        if (key < 0 || key >= maxElements) {
+            throw new IllegalArgumentException("Key index out of bounds; received: " + key);
+        }
+    }
+}
@@ -1,4 +1,5 @@
-import java.io.FileNotFoundException;
+import java.io.File;
+import java.io.IOException;
 
 /**
  * a solution to the actor representative graph problem
@@ -7,11 +8,40 @@ import java.io.FileNotFoundException;
  */
 public class MC {
     /**
-     * @param args the command line arguments
+     * @param args the command line arguments: none, or --tree or --tree-binary
+     *             followed by a file to also write the cheapest hire path of
+     *             every actor to, or --batch followed by a directory or file of
+     *             problems, the file to write the answers to and optionally the
+     *             most problems to hold in memory at once, or --serve followed
+     *             by a port and name=file pairs of the graphs to serve
      */
-    public static void main(String[] args) throws FileNotFoundException {
+    public static void main(String[] args) throws IOException {
         Menu menu = new Menu();
-        menu.run();
+        if (args.length == 2 && (args[0].equals("--tree") || args[0].equals("--tree-binary"))) {
+            menu.runTree(new File(args[1]), args[0].equals("--tree-binary"));
+        } else if ((args.length == 3 || args.length == 4) && args[0].equals("--batch")) {
+            int permits = args.length == 4 ? Integer.parseInt(args[3]) : ProblemBatch.DEFAULT_PERMITS;
+            try (ProblemBatch batch = new ProblemBatch(ProblemBatch.DEFAULT_THREADS, permits)) {
+                int solved = batch.solve(new File(args[1]), new File(args[2]));
+                System.out.println(solved + " problems solved");
+            }
+            return;
+        } else if (args.length >= 2 && args[0].equals("--serve")) {
+            QueryServer server = new QueryServer(Integer.parseInt(args[1]));
+            for (int i = 2; i < args.length; i++) // every graph is loaded before the first request
+            {
+                int equals = args[i].indexOf('=');
+                if (equals <= 0) {
+                    throw new IllegalArgumentException("expected name=file; received: " + args[i]);
+                }
+                server.load(args[i].substring(0, equals), new File(args[i].substring(equals + 1)));
+            }
+            server.start();
+            System.out.println("serving on http://127.0.0.1:" + server.getPort());
+            return; // the server threads keep running
+        } else {
+            menu.run();
+        }
         System.out.println("The program is now calcualting cheapest route");
     }
 }
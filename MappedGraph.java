@@ -0,0 +1,156 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A graph searched directly from a memory mapped BinaryGraphFile. Nothing is
+ * parsed or copied onto the heap; the operating system pages the file in as
+ * the search touches it and shares those pages with every process mapping the
+ * same file. A single mapping is limited to 2GB, so each section is mapped in
+ * chunks of CHUNK_ELEMENTS values.
+ */
+public class MappedGraph implements NeighborGraph {
+    private static final int CHUNK_SHIFT = 27; // log2 of the values per mapped chunk
+    private static final int CHUNK_ELEMENTS = 1 << CHUNK_SHIFT; // values per mapped chunk
+    private static final int CHUNK_MASK = CHUNK_ELEMENTS - 1;
+
+    // instance variables
+    private final int nodes; // number of nodes in graph
+    private final long edges; // number of edges in graph
+    private final int queryStart; // the starting node stored with the graph or -1
+    private final int queryEnd; // the ending node stored with the graph or -1
+    private final IntBuffer[] offsets; // the mapped offsets section
+    private final IntBuffer[] targets; // the mapped targets section
+    private final DoubleBuffer[] weights; // the mapped weights section
+
+    /**
+     * maps a binary graph file read only
+     *
+     * @param file the file to map
+     * @throws IOException if the file can not be read or is not a graph file
+     */
+    public MappedGraph(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, BinaryGraphFile.HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != BinaryGraphFile.MAGIC || header.getInt(4) != BinaryGraphFile.VERSION) {
+                throw new IOException("not a binary graph file: " + file);
+            }
+            nodes = header.getInt(8);
+            queryStart = header.getInt(12);
+            queryEnd = header.getInt(16);
+            edges = header.getLong(24);
+            long targetsPosition = BinaryGraphFile.targetsPosition(nodes);
+            long weightsPosition = BinaryGraphFile.weightsPosition(nodes, edges);
+            if (channel.size() < weightsPosition + edges * Double.BYTES) {
+                throw new IOException("binary graph file is truncated: " + file);
+            }
+            offsets = mapInts(channel, BinaryGraphFile.HEADER_BYTES, nodes + 1L);
+            targets = mapInts(channel, targetsPosition, edges);
+            weights = mapDoubles(channel, weightsPosition, edges);
+        } // the mappings stay valid after the channel is closed
+    }
+
+    /**
+     * maps count ints starting at position in chunks
+     */
+    private static IntBuffer[] mapInts(FileChannel channel, long position, long count) throws IOException {
+        IntBuffer[] chunks = new IntBuffer[(int) ((count + CHUNK_MASK) >>> CHUNK_SHIFT)];
+        for (int i = 0; i < chunks.length; i++) {
+            long first = (long) i << CHUNK_SHIFT;
+            long size = Math.min(CHUNK_ELEMENTS, count - first) * Integer.BYTES;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + first * Integer.BYTES, size)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return chunks;
+    }
+
+    /**
+     * maps count doubles starting at position in chunks
+     */
+    private static DoubleBuffer[] mapDoubles(FileChannel channel, long position, long count) throws IOException {
+        DoubleBuffer[] chunks = new DoubleBuffer[(int) ((count + CHUNK_MASK) >>> CHUNK_SHIFT)];
+        for (int i = 0; i < chunks.length; i++) {
+            long first = (long) i << CHUNK_SHIFT;
+            long size = Math.min(CHUNK_ELEMENTS, count - first) * Double.BYTES;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position + first * Double.BYTES, size)
+                    .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+        return chunks;
+    }
+
+    /**
+     * @return the number of nodes in the graph
+     */
+    @Override
+    public int size() {
+        return nodes;
+    }
+
+    /**
+     * @return the number of edges in the graph
+     */
+    @Override
+    public long edgeCount() {
+        return edges;
+    }
+
+    /**
+     * @return the starting node of the query stored with the graph, -1 if none
+     */
+    public int getQueryStart() {
+        return queryStart;
+    }
+
+    /**
+     * @return the ending node of the query stored with the graph, -1 if none
+     */
+    public int getQueryEnd() {
+        return queryEnd;
+    }
+
+    /**
+     * @return a cursor reading the edges from the mapped sections
+     */
+    @Override
+    public EdgeCursor cursor() {
+        return new EdgeCursor() {
+            private long edge; // the current edge
+            private long last; // the end of the edges of the current node
+
+            @Override
+            public void reset(int node) {
+                edge = offset(node) - 1;
+                last = offset(node + 1);
+            }
+
+            @Override
+            public boolean next() {
+                return ++edge < last;
+            }
+
+            @Override
+            public int target() {
+                return targets[(int) (edge >>> CHUNK_SHIFT)].get((int) (edge & CHUNK_MASK));
+            }
+
+            @Override
+            public double weight() {
+                return weights[(int) (edge >>> CHUNK_SHIFT)].get((int) (edge & CHUNK_MASK));
+            }
+        };
+    }
+
+    /**
+     * @param node a node or nodes for the end of the last node
+     * @return the index of the first edge of node
+     */
+    private long offset(int node) {
+        return offsets[node >>> CHUNK_SHIFT].get(node & CHUNK_MASK);
+    }
+}
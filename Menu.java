@@ -1,5 +1,6 @@
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.List;
@@ -13,12 +14,8 @@ import java.util.List;
  */
 public class Menu {
     // instance variables
-    private final DoublyLinkedList<Double> initalCost = new DoublyLinkedList<>();// use DLL to hold inital costs uses
-                                                                                 // LIFO
-    private DoublyLinkedList<String> DLL = new DoublyLinkedList<>(); // holds each token of the input.txt
     private int nodes; // the number of actors
     private int target; // the target actor
-    private graphEdge edgeGraph; // an initialized empty graph
     private List<Integer> path = new ArrayList<>(); // will store the shortest path taken
     private double shortestPath; // stores the total weight of shortest path
 
@@ -27,30 +24,19 @@ public class Menu {
     }
 
     /**
-     * The run method calls all the methods to read the input.txt, create a directed
-     * weighted edge graph, calls Dijkstra to find the shortest path.
+     * The run method reads the input.txt, creates a directed weighted edge graph
+     * and calls Dijkstra to find the shortest path. The input is parsed by
+     * ActorProblem straight into primitive arrays. The graph is an
+     * ImplicitActorGraph over those arrays, so no edges are stored at all.
      * 
-     * @throws FileNotFoundException
+     * @throws IOException if input.txt can not be read
      */
-    public void run() throws FileNotFoundException {
-        readFileDLL(); // calls the read file method
-        getStartingValues(); // calls the initial values method to get base costs
-        for (int i = 0; i < nodes; i++) {
-            for (int j = 0; j < nodes; j++) {
-                double cost = initalCost.removeFirst(); // gets the cost to hire the actor j
-                double discount = Double.parseDouble(DLL.removeFirst()); // parses the values stored as strings and
-                                                                         // converts into double
-                if (i == j) // if i equal j put in regular cost
-                {
-                    edgeGraph.addEdge(i, j, cost); // sets the actors cost to hire self aka regular cost
-                } else // else use the recognition formula
-                {
-                    edgeGraph.addEdge(i, j, cost * (1 - discount));
-                }
-                initalCost.addLast(cost); // re-adds the inital cost back to the list
-            }
-        }
-        Dijkstra dj = new Dijkstra(nodes + 1, edgeGraph); // creates a new instance of the Dijkstra class
+    public void run() throws IOException {
+        ActorProblem problem = ActorProblem.read(new File("input.txt")); // reads the actors and costs
+        nodes = problem.getActors();
+        target = problem.getTarget();
+        NeighborGraph graph = new ImplicitActorGraph(problem); // the store and actor graph
+        Dijkstra dj = new Dijkstra(graph); // creates a new instance of the Dijkstra class
         shortestPath = dj.dijkstra(nodes, target - 1); // sets the shortestPath to the return of the dijkstra method
         path = dj.reconstructPath(nodes, target - 1, nodes + 1, shortestPath); // sets path to the return of the
                                                                                // reconstruct method
@@ -58,39 +44,33 @@ public class Menu {
     }
 
     /**
-     * Takes the data from the instance variables and generates the directed
-     * weighted edge graph. The values are converted from String type into proper
-     * Integer and Double type. The graph that is initialized will be empty and have
-     * one additional node+1 node which will serve as the starting node videoStore =
-     * S
-     */
-    public void getStartingValues() {
-        target = Integer.parseInt(DLL.removeLast()); // the actor in the store wishes to hire by removing last token in
-                                                     // list
-        nodes = Integer.parseInt(DLL.removeFirst()); // find the number of actors by removing first token in list
-        edgeGraph = new graphEdge(nodes + 1); // generates graph of size nodes+1 plus one becuase of strating node
-        for (int i = 0; i < nodes; i++) // sets up the directed edges of the starting node
-        {
-            double baseCost = Double.parseDouble(DLL.removeFirst()); // base cost is the direct cost of hiring actors by
-                                                                     // S
-            initalCost.addLast(baseCost); // will act like a queue
-            edgeGraph.addEdge(nodes, i, baseCost); // adds the weighted edges of starting node to graph
-        }
-    }
-
-    /**
-     * reads in the file from input.txt by creating a instance class of the
-     * readFile. a new file is then created from the referenced file input.txt and
-     * fileToDLL method is called. the return value of this method is a
-     * DoublyLinkedList and the Menu class instance variable DLL is set to this
-     * return.
+     * reads input.txt and searches once from the store to every actor. The answer
+     * for the target actor goes to output.txt as in run, and the whole shortest
+     * path tree, the cheapest hire path of every actor, is streamed to treeFile.
      * 
-     * @throws FileNotFoundException
+     * @param treeFile the file to write the tree to
+     * @param binary   true to write the binary format of ShortestPathTree, false
+     *                 for text with the path of every node
+     * @throws IOException if a file can not be read or written
      */
-    public void readFileDLL() throws FileNotFoundException {
-        readFile read = new readFile(); // new instance of the readFile class
-        File inFile = new File("input.txt");
-        DLL = read.fileToDLL(inFile); // sets the DLL to the return value of the fillToDLL
+    public void runTree(File treeFile, boolean binary) throws IOException {
+        ActorProblem problem = ActorProblem.read(new File("input.txt"));
+        nodes = problem.getActors();
+        target = problem.getTarget();
+        Dijkstra dj = new Dijkstra(new ImplicitActorGraph(problem));
+        ShortestPathTree tree = dj.shortestPathTree(nodes); // the store is the last node
+        shortestPath = tree.distance(target - 1);
+        int[] nodesOnPath = new int[tree.size()];
+        path = new ArrayList<>();
+        for (int i = 0, length = tree.path(target - 1, nodesOnPath); i < length; i++) {
+            path.add(nodesOnPath[i] + 1);
+        }
+        writeFile();
+        if (binary) {
+            tree.writeBinary(treeFile);
+        } else {
+            tree.writeText(treeFile, true);
+        }
     }
 
     /**
@@ -26,6 +26,7 @@ public class MinIndexedDHeap<T extends Comparable<T>> {
     // The values associated with the keys. It is very important to note
     // that this array is indexed by the key indexes.
     public final Object[] values;
+    private SearchStats.Query stats; // the query the operations are counted for, null for none
 
     /**
      * constructor that initializes the heap with a maximum capacity of maxSize. and
@@ -82,6 +83,16 @@ public class MinIndexedDHeap<T extends Comparable<T>> {
         return positionMap[key] != -1; // return index of key
     }
 
+    /**
+     * counts the inserts, decreases, removals and sift steps of this heap for a
+     * query. Nothing is counted unless SearchStats.ENABLED is true.
+     * 
+     * @param query the query to count for, null to stop counting
+     */
+    public void setStats(SearchStats.Query query) {
+        stats = query;
+    }
+
     /**
      * checks but does not remove the minimum key within the head
      * 
@@ -145,6 +156,9 @@ public class MinIndexedDHeap<T extends Comparable<T>> {
         positionMap[key] = currentNumNodes; // set the position at key to the end
         inverseMap[currentNumNodes] = key; // sets the inverse at the end to key
         values[key] = value; // sets the value at position key to the passed in value
+        if (SearchStats.ENABLED && stats != null) {
+            stats.inserts++;
+        }
         pushUp(currentNumNodes++); // pushUp the nodes by the incremented total nodes
     }
 
@@ -170,6 +184,9 @@ public class MinIndexedDHeap<T extends Comparable<T>> {
     public T delete(int key) {
         keyExistsOrThrow(key); // checks if the key exists
         final int i = positionMap[key]; // creates a final int of the positionMap at key
+        if (SearchStats.ENABLED && stats != null) {
+            stats.removals++;
+        }
         swap(i, --currentNumNodes); // swaps the node i to the end of the arrays
         pullDown(i); // pullDown i if needed
         pushUp(i); // pushUp i if needed
@@ -209,6 +226,9 @@ public class MinIndexedDHeap<T extends Comparable<T>> {
         if (less(value, values[key])) // if the passed in value is less than value at key
         {
             values[key] = value; // value at index key is set to passed in value
+            if (SearchStats.ENABLED && stats != null) {
+                stats.decreases++;
+            }
             pushUp(positionMap[key]); // the node in position map key is pushed up
         }
     }
@@ -238,11 +258,16 @@ public class MinIndexedDHeap<T extends Comparable<T>> {
      * @param i the node to be pulled down
      */
     private void pullDown(int i) {
+        int steps = 0; // the number of swaps
         for (int j = minChild(i); j != -1;) // for all the min children of i
         {
             swap(i, j); // swap the i and j
             i = j; // i is set to j
             j = minChild(i); // j is now the min child of i
+            steps++;
+        }
+        if (SearchStats.ENABLED && stats != null) {
+            stats.sift(steps);
         }
     }
 
@@ -253,10 +278,15 @@ public class MinIndexedDHeap<T extends Comparable<T>> {
      * @param i the node to be pushed up the heap
      */
     private void pushUp(int i) {
+        int steps = 0; // the number of swaps
         while (less(i, parent[i])) // while i is less than parent at i
         {
             swap(i, parent[i]); // swap i and parent of i
             i = parent[i]; // i is set to parent of i
+            steps++;
+        }
+        if (SearchStats.ENABLED && stats != null) {
+            stats.sift(steps);
         }
     }
 
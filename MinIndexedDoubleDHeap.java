@@ -0,0 +1,403 @@
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import java.util.NoSuchElementException;
+
+/**
+ * A version of MinIndexedDHeap specialized for double values. The values are
+ * stored in a double array so no Double objects are created and comparisons
+ * are plain primitive compares. Parent and child positions are calculated
+ * instead of looked up in arrays. It is the d-ary IndexedPriorityQueue;
+ * PriorityQueues picks its degree from the average out degree of the graph.
+ */
+public class MinIndexedDoubleDHeap implements IndexedPriorityQueue {
+
+    // instance variables
+    private int currentNumNodes; // current number of elements in the heap.
+    private final int maxElements; // maximum number of elements in the heap.
+    private final int nodeDegree; // the degree of every node in the heap.
+
+    // The Position Map positionMap maps Key Indexes key to where the position of
+    // that key is represented in the priority heap
+    private final int[] positionMap;
+    private final int[] inverseMap; // The Inverse Map stores the indexes of the keys in the range
+
+    // The values of the heap. Unlike MinIndexedDHeap this array is indexed by heap
+    // position so the values compared while sifting sit next to each other.
+    private final double[] heapValues;
+    private SearchStats.Query stats; // the query the operations are counted for, null for none
+
+    /**
+     * constructor that initializes the heap with a maximum capacity of maxSize and
+     * a degree of child nodes.
+     *
+     * @param degree  the number of children of every node
+     * @param maxSize the number of keys the heap can hold
+     */
+    public MinIndexedDoubleDHeap(int degree, int maxSize) {
+        if (maxSize <= 0) // if maxSize is negitive
+        {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        nodeDegree = max(2, degree);
+        maxElements = max(nodeDegree + 1, maxSize);
+        inverseMap = new int[maxElements];
+        positionMap = new int[maxElements];
+        heapValues = new double[maxElements];
+        for (int i = 0; i < maxElements; i++) {
+            positionMap[i] = inverseMap[i] = -1;
+        }
+    }
+
+    /**
+     * @return the size of the heap
+     */
+    @Override
+    public int size() {
+        return currentNumNodes;
+    }
+
+    /**
+     * @return if the heap is empty
+     */
+    @Override
+    public boolean isEmpty() {
+        return currentNumNodes == 0;
+    }
+
+    /**
+     * checks to see if the passed in key is within the heap.
+     *
+     * @param key the key to be looked up
+     * @return true if heap contains key else return false
+     */
+    @Override
+    public boolean contains(int key) {
+        keyInBoundsOrThrow(key);
+        return positionMap[key] != -1;
+    }
+
+    /**
+     * counts the inserts, decreases, removals and sift steps of this heap for a
+     * query. Nothing is counted unless SearchStats.ENABLED is true.
+     *
+     * @param query the query to count for, null to stop counting
+     */
+    @Override
+    public void setStats(SearchStats.Query query) {
+        stats = query;
+    }
+
+    /**
+     * checks but does not remove the minimum key within the heap
+     *
+     * @return the minimum key
+     */
+    @Override
+    public int minKeyIndex() {
+        isNotEmptyOrThrow();
+        return inverseMap[0];
+    }
+
+    /**
+     * removes the minimum key from the heap
+     *
+     * @return the minimum key
+     */
+    @Override
+    public int removeMinKeyIndex() {
+        int minKey = minKeyIndex();
+        delete(minKey);
+        return minKey;
+    }
+
+    /**
+     * checks but does not remove the heap for the minimum value
+     *
+     * @return the minimum value in heap
+     */
+    @Override
+    public double minValue() {
+        isNotEmptyOrThrow();
+        return heapValues[0];
+    }
+
+    /**
+     * removes the minimum key from the heap and returns its value
+     *
+     * @return the removed value
+     */
+    @Override
+    public double removeMinValue() {
+        double minValue = minValue();
+        delete(inverseMap[0]);
+        return minValue;
+    }
+
+    /**
+     * Inserts a new key value pair within the heap.
+     *
+     * @param key   the key to be inserted
+     * @param value the value to be inserted
+     */
+    @Override
+    public void insert(int key, double value) {
+        if (contains(key)) // if key is already in the heap throw Exception
+        {
+            throw new IllegalArgumentException("index already exists; received: " + key);
+        }
+        valueNotNaNOrThrow(value);
+        positionMap[key] = currentNumNodes; // the new key starts at the end
+        inverseMap[currentNumNodes] = key;
+        heapValues[currentNumNodes] = value;
+        if (SearchStats.ENABLED && stats != null) {
+            stats.inserts++;
+        }
+        pushUp(currentNumNodes++);
+    }
+
+    /**
+     * searches the heap for the value at location key does not remove value.
+     *
+     * @param key the target location
+     * @return the value found at location key
+     */
+    public double valueOf(int key) {
+        keyExistsOrThrow(key);
+        return heapValues[positionMap[key]];
+    }
+
+    /**
+     * removes both the key value pair
+     *
+     * @param key the location of the target node
+     * @return the removed value
+     */
+    public double delete(int key) {
+        keyExistsOrThrow(key);
+        final int i = positionMap[key];
+        double value = heapValues[i];
+        if (SearchStats.ENABLED && stats != null) {
+            stats.removals++;
+        }
+        swap(i, --currentNumNodes); // moves the node i to the end of the arrays
+        pullDown(i);
+        pushUp(i);
+        positionMap[key] = -1;
+        inverseMap[currentNumNodes] = -1;
+        return value;
+    }
+
+    /**
+     * updates the value of at location key with the passed in value
+     *
+     * @param key   the target location
+     * @param value the value to change to
+     * @return the old value at location key
+     */
+    public double update(int key, double value) {
+        keyExistsAndValueNotNaNOrThrow(key, value);
+        final int i = positionMap[key];
+        double oldValue = heapValues[i];
+        heapValues[i] = value;
+        pullDown(i);
+        pushUp(i);
+        return oldValue;
+    }
+
+    /**
+     * decrease the value at location of key
+     *
+     * @param key   the location of the target
+     * @param value the value to be decreased
+     */
+    @Override
+    public void decrease(int key, double value) {
+        keyExistsAndValueNotNaNOrThrow(key, value);
+        final int i = positionMap[key];
+        if (value < heapValues[i]) {
+            heapValues[i] = value;
+            if (SearchStats.ENABLED && stats != null) {
+                stats.decreases++;
+            }
+            pushUp(i);
+        }
+    }
+
+    /**
+     * increases the value at the location of key
+     *
+     * @param key   the location of the target value
+     * @param value the value to be increased
+     */
+    public void increase(int key, double value) {
+        keyExistsAndValueNotNaNOrThrow(key, value);
+        final int i = positionMap[key];
+        if (heapValues[i] < value) {
+            heapValues[i] = value;
+            pullDown(i);
+        }
+    }
+
+    /**
+     * removes every key from the heap. Only the positions in use are reset so the
+     * cost depends on the current size and not on maxSize.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < currentNumNodes; i++) {
+            positionMap[inverseMap[i]] = -1;
+            inverseMap[i] = -1;
+        }
+        currentNumNodes = 0;
+    }
+
+    // ---------------------------Helper
+    // functions-----------------------------------
+
+    /**
+     * moves the node at position i down until none of its children is smaller.
+     *
+     * @param i the node to be pulled down
+     */
+    private void pullDown(int i) {
+        int steps = 0; // the number of swaps
+        for (int j = minChild(i); j != -1;) {
+            swap(i, j);
+            i = j;
+            j = minChild(i);
+            steps++;
+        }
+        if (SearchStats.ENABLED && stats != null) {
+            stats.sift(steps);
+        }
+    }
+
+    /**
+     * moves the node at position i up until its parent is not larger.
+     *
+     * @param i the node to be pushed up the heap
+     */
+    private void pushUp(int i) {
+        int steps = 0; // the number of swaps
+        while (i > 0) {
+            int p = (i - 1) / nodeDegree; // the parent position
+            if (!(heapValues[i] < heapValues[p])) {
+                break;
+            }
+            swap(i, p);
+            i = p;
+            steps++;
+        }
+        if (SearchStats.ENABLED && stats != null) {
+            stats.sift(steps);
+        }
+    }
+
+    /**
+     * from the parent node at index i find the minimum child below it
+     *
+     * @param i the parent node
+     * @return the minimum child or -1 if no child is less than i
+     */
+    private int minChild(int i) {
+        int index = -1;
+        double best = heapValues[i];
+        int from = i * nodeDegree + 1; // the first child position
+        int to = min(currentNumNodes, from + nodeDegree);
+        for (int j = from; j < to; j++) {
+            if (heapValues[j] < best) {
+                best = heapValues[j];
+                index = j;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * swaps the nodes at heap positions i and j.
+     *
+     * @param i index to be swapped
+     * @param j index to be swapped
+     */
+    private void swap(int i, int j) {
+        positionMap[inverseMap[j]] = i;
+        positionMap[inverseMap[i]] = j;
+        int tmp = inverseMap[i];
+        inverseMap[i] = inverseMap[j];
+        inverseMap[j] = tmp;
+        double value = heapValues[i];
+        heapValues[i] = heapValues[j];
+        heapValues[j] = value;
+    }
+
+    // --------------------------------helper
+    // methods--------------------------------
+
+    /**
+     * Test if the heap is empty
+     */
+    private void isNotEmptyOrThrow() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Priority queue underflow");
+        }
+    }
+
+    /**
+     * combines keyExistsOrThrow and valueNotNaNOrThrow methods.
+     *
+     * @param key   the key to be checked
+     * @param value the value to be checked
+     */
+    private void keyExistsAndValueNotNaNOrThrow(int key, double value) {
+        keyExistsOrThrow(key);
+        valueNotNaNOrThrow(value);
+    }
+
+    /**
+     * checks if the key is within the heap throws a NoSuchElementException if key
+     * is not in heap
+     *
+     * @param key the key to be checked
+     */
+    private void keyExistsOrThrow(int key) {
+        if (!contains(key)) {
+            throw new NoSuchElementException("Index does not exist; received: " + key);
+        }
+    }
+
+    /**
+     * NaN can not be ordered so it takes the place of the null check of
+     * MinIndexedDHeap.
+     *
+     * @param value the value to be checked
+     */
+    private void valueNotNaNOrThrow(double value) {
+        if (Double.isNaN(value))
+            throw new IllegalArgumentException("value cannot be NaN");
+    }
+
+    /**
+     * checks whether the key is within the bounds of the heap
+     *
+     * @param key the key to be checked
+     */
+    private void keyInBoundsOrThrow(int key) {
+        if (key < 0 || key >= maxElements) {
+            throw new IllegalArgumentException("Key index out of bounds; received: " + key);
+        }
+    }
+
+    // ------------------------------------------------------------------------------
+
+    /**
+     * checks if this heap is a min heap.
+     */
+    public boolean isMinHeap() {
+        for (int i = 1; i < currentNumNodes; i++) {
+            if (heapValues[i] < heapValues[(i - 1) / nodeDegree]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * A read only directed weighted graph that is searched by walking the outgoing
+ * edges of one node at a time. Graphs that do not keep Edge objects (mapped
+ * files, implicit or compressed graphs) implement this so Dijkstra can search
+ * them without converting them first.
+ */
+public interface NeighborGraph {
+
+    /**
+     * @return the number of nodes in the graph
+     */
+    int size();
+
+    /**
+     * @return the number of edges in the graph
+     */
+    long edgeCount();
+
+    /**
+     * creates a new cursor over the edges of this graph. A cursor is reused for
+     * every node a search visits, so only one is needed per search thread.
+     *
+     * @return a new cursor
+     */
+    EdgeCursor cursor();
+
+    /**
+     * the range of the edge weights, used to pick the priority queue. Graphs that
+     * do not track their weights return null and get the d-ary heap.
+     *
+     * @return the range of the edge weights, null if not known
+     */
+    default WeightRange getWeightRange() {
+        return null;
+    }
+
+    // -------------------nested cursor interface-----------------------------------
+
+    /**
+     * walks the outgoing edges of one node. Call reset with the node, then next
+     * until it returns false; target and weight describe the current edge.
+     */
+    interface EdgeCursor {
+
+        /**
+         * moves the cursor before the first outgoing edge of node
+         *
+         * @param node the starting node
+         */
+        void reset(int node);
+
+        /**
+         * @return true if the cursor moved to another edge, false if there are none
+         *         left
+         */
+        boolean next();
+
+        /**
+         * @return the ending node of the current edge
+         */
+        int target();
+
+        /**
+         * @return the weight of the current edge
+         */
+        double weight();
+    }
+}
@@ -0,0 +1,408 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A CSR graph whose offsets, targets and weights live outside the Java heap,
+ * in direct buffers or in a file mapped read and write. The heap only holds a
+ * few buffer objects per CHUNK_ELEMENTS values, so a garbage collection costs
+ * the same however many edges the graph has, unlike graphEdge with its Edge
+ * object per edge. Dijkstra searches it through its EdgeCursor.
+ *
+ * The graph is filled by a Builder that takes the edges grouped by their
+ * starting node, so no edge is ever held on the heap. A file backed graph is
+ * written in the BinaryGraphFile layout and can be mapped again later with
+ * MappedGraph.
+ *
+ * close ends the life of the graph: a file backed graph is forced to disk and
+ * no new cursor can be created. Java 17 offers no public way to free a direct
+ * buffer at once, so the memory is returned when the closed buffers are next
+ * collected.
+ */
+public class OffHeapGraph implements NeighborGraph, AutoCloseable {
+    private static final int CHUNK_SHIFT = 27; // log2 of the values per buffer
+    private static final int CHUNK_ELEMENTS = 1 << CHUNK_SHIFT; // values per buffer, a buffer holds at most 2GB
+    private static final int CHUNK_MASK = CHUNK_ELEMENTS - 1;
+
+    // instance variables
+    private final int nodes; // number of nodes in graph
+    private final long edges; // number of edges in graph
+    private final IntBuffer[] offsets; // the first edge of every node and the end of the last node
+    private final IntBuffer[] targets; // the ending node of every edge
+    private final DoubleBuffer[] weights; // the weight of every edge
+    private final MappedByteBuffer[] mapped; // the mappings of a file backed graph, empty otherwise
+    private final WeightRange weightRange; // the range of the weights of the graph
+    private boolean closed; // true once close was called
+
+    /**
+     * the graph a builder filled
+     */
+    private OffHeapGraph(Builder builder) {
+        nodes = builder.nodes;
+        edges = builder.edges;
+        offsets = builder.offsets;
+        targets = builder.targets;
+        weights = builder.weights;
+        mapped = builder.mapped;
+        weightRange = builder.weightRange;
+    }
+
+    /**
+     * copies a graph into direct buffers
+     *
+     * @param g the graph to copy
+     * @return the off heap copy
+     */
+    public static OffHeapGraph copyOf(NeighborGraph g) {
+        try {
+            return copyOf(g, null);
+        } catch (IOException e) {
+            throw new AssertionError(e); // only a file can fail
+        }
+    }
+
+    /**
+     * copies a graph into direct buffers or into a file
+     *
+     * @param g    the graph to copy
+     * @param file the file to back the copy with, null for direct buffers
+     * @return the off heap copy
+     * @throws IOException if the file can not be written
+     */
+    public static OffHeapGraph copyOf(NeighborGraph g, File file) throws IOException {
+        Builder builder = new Builder(g.size(), g.edgeCount(), file);
+        NeighborGraph.EdgeCursor cursor = g.cursor();
+        for (int u = 0; u < g.size(); u++) {
+            for (cursor.reset(u); cursor.next();) {
+                builder.addEdge(u, cursor.target(), cursor.weight());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the number of nodes in the graph
+     */
+    @Override
+    public int size() {
+        return nodes;
+    }
+
+    /**
+     * @return the number of edges in the graph
+     */
+    @Override
+    public long edgeCount() {
+        return edges;
+    }
+
+    /**
+     * @return the range of the edge weights, seen while the graph was built
+     */
+    @Override
+    public WeightRange getWeightRange() {
+        return weightRange;
+    }
+
+    /**
+     * @return true if the graph is stored in a file
+     */
+    public boolean isFileBacked() {
+        return mapped.length > 0;
+    }
+
+    /**
+     * @return a cursor reading the edges from the buffers
+     * @throws IllegalStateException if the graph is closed
+     */
+    @Override
+    public EdgeCursor cursor() {
+        if (closed) {
+            throw new IllegalStateException("graph is closed");
+        }
+        return new EdgeCursor() {
+            private long edge; // the current edge
+            private long last; // the end of the edges of the current node
+
+            @Override
+            public void reset(int node) {
+                edge = offset(node) - 1;
+                last = offset(node + 1);
+            }
+
+            @Override
+            public boolean next() {
+                return ++edge < last;
+            }
+
+            @Override
+            public int target() {
+                return targets[(int) (edge >>> CHUNK_SHIFT)].get((int) (edge & CHUNK_MASK));
+            }
+
+            @Override
+            public double weight() {
+                return weights[(int) (edge >>> CHUNK_SHIFT)].get((int) (edge & CHUNK_MASK));
+            }
+        };
+    }
+
+    /**
+     * forces a file backed graph to disk and stops new searches. Cursors created
+     * before must not be used any more.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (MappedByteBuffer buffer : mapped) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * @param node a node or nodes for the end of the last node
+     * @return the index of the first edge of node
+     */
+    private long offset(int node) {
+        return offsets[node >>> CHUNK_SHIFT].get(node & CHUNK_MASK);
+    }
+
+    // -------------------nested classes--------------------------------------------
+
+    /**
+     * Fills an OffHeapGraph edge by edge. The number of edges is given up front
+     * so every buffer is allocated once, and the edges are added grouped by
+     * their starting node in increasing order, so every edge is written
+     * straight to its place. The GraphGenerator kinds that emit their edges
+     * that way, such as randomSparse, can stream into a builder as an EdgeSink.
+     */
+    public static class Builder implements GraphGenerator.EdgeSink {
+        // instance variables
+        private final int nodes; // number of nodes in the graph being built
+        private final long edges; // number of edges the graph will have
+        private IntBuffer[] offsets; // the offsets section
+        private IntBuffer[] targets; // the targets section
+        private DoubleBuffer[] weights; // the weights section
+        private MappedByteBuffer[] mapped = new MappedByteBuffer[0]; // the mappings of a file, empty otherwise
+        private final WeightRange weightRange = new WeightRange(); // the weights added so far
+        private long added; // number of edges added so far
+        private int node; // the starting node of the last edge added
+        private boolean built; // true once build was called
+
+        /**
+         * a builder writing to direct buffers
+         *
+         * @param n     the number of nodes of the graph
+         * @param edges the number of edges that will be added
+         */
+        public Builder(int n, long edges) {
+            checkSizes(n, edges);
+            nodes = n;
+            this.edges = edges;
+            allocate();
+        }
+
+        /**
+         * a builder writing to a file in the BinaryGraphFile layout
+         *
+         * @param n     the number of nodes of the graph
+         * @param edges the number of edges that will be added
+         * @param file  the file to write, null for direct buffers
+         * @throws IOException if the file can not be created
+         */
+        public Builder(int n, long edges, File file) throws IOException {
+            checkSizes(n, edges);
+            nodes = n;
+            this.edges = edges;
+            if (file == null) {
+                allocate();
+            } else {
+                mapFile(file);
+            }
+        }
+
+        /**
+         * adds the next edge. The edges of a node follow the edges of every smaller
+         * node.
+         *
+         * @param startNode the starting node
+         * @param nextNode  the ending node
+         * @param weight    the weight of the edge
+         * @return this builder
+         */
+        public Builder addEdge(int startNode, int nextNode, double weight) {
+            if (startNode < 0 || startNode >= nodes || nextNode < 0 || nextNode >= nodes) {
+                throw new IllegalArgumentException("Invalid node index");
+            }
+            if (startNode < node) {
+                throw new IllegalArgumentException("edges must be added in order of their starting node");
+            }
+            if (added == edges) {
+                throw new IllegalStateException("more than " + edges + " edges added");
+            }
+            while (node < startNode) // the nodes in between have no more edges
+            {
+                node++;
+                putOffset(node, added);
+            }
+            targets[(int) (added >>> CHUNK_SHIFT)].put((int) (added & CHUNK_MASK), nextNode);
+            weights[(int) (added >>> CHUNK_SHIFT)].put((int) (added & CHUNK_MASK), weight);
+            weightRange.add(weight);
+            added++;
+            return this;
+        }
+
+        /**
+         * the EdgeSink form of addEdge
+         */
+        @Override
+        public void edge(int from, int to, double weight) {
+            addEdge(from, to, weight);
+        }
+
+        /**
+         * ends the last nodes and creates the graph
+         *
+         * @return the graph of the added edges
+         * @throws IllegalStateException if fewer edges were added than announced
+         */
+        public OffHeapGraph build() {
+            if (built) {
+                throw new IllegalStateException("graph already built");
+            }
+            if (added != edges) {
+                throw new IllegalStateException("expected " + edges + " edges; added: " + added);
+            }
+            while (node < nodes) {
+                node++;
+                putOffset(node, added);
+            }
+            built = true;
+            return new OffHeapGraph(this);
+        }
+
+        /**
+         * offsets are ints as in CSRGraph, so the edges must fit in an int
+         */
+        private static void checkSizes(int n, long edges) {
+            if (n <= 0 || n == Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("unsupported number of nodes; received: " + n);
+            }
+            if (edges < 0 || edges > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("unsupported number of edges; received: " + edges);
+            }
+        }
+
+        /**
+         * allocates the sections in direct buffers
+         */
+        private void allocate() {
+            offsets = allocateInts(nodes + 1L);
+            targets = allocateInts(edges);
+            weights = allocateDoubles(edges);
+        }
+
+        /**
+         * writes the header of the file and maps the sections, the channel is
+         * closed once they are mapped
+         */
+        private void mapFile(File file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long targetsPosition = BinaryGraphFile.targetsPosition(nodes);
+                long weightsPosition = BinaryGraphFile.weightsPosition(nodes, edges);
+                long offsetsChunks = chunks(nodes + 1L);
+                long edgeChunks = chunks(edges);
+                mapped = new MappedByteBuffer[(int) (1 + offsetsChunks + 2 * edgeChunks)];
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, BinaryGraphFile.HEADER_BYTES);
+                header.order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(BinaryGraphFile.MAGIC).putInt(BinaryGraphFile.VERSION).putInt(nodes).putInt(-1).putInt(-1)
+                        .putInt(0).putLong(edges);
+                mapped[0] = header;
+                offsets = new IntBuffer[(int) offsetsChunks];
+                targets = new IntBuffer[(int) edgeChunks];
+                weights = new DoubleBuffer[(int) edgeChunks];
+                int m = 1;
+                for (int i = 0; i < offsets.length; i++, m++) {
+                    mapped[m] = map(channel, BinaryGraphFile.HEADER_BYTES, nodes + 1L, Integer.BYTES, i);
+                    offsets[i] = mapped[m].asIntBuffer();
+                }
+                for (int i = 0; i < targets.length; i++, m++) {
+                    mapped[m] = map(channel, targetsPosition, edges, Integer.BYTES, i);
+                    targets[i] = mapped[m].asIntBuffer();
+                }
+                for (int i = 0; i < weights.length; i++, m++) {
+                    mapped[m] = map(channel, weightsPosition, edges, Double.BYTES, i);
+                    weights[i] = mapped[m].asDoubleBuffer();
+                }
+                long end = weightsPosition + edges * Double.BYTES;
+                if (channel.size() < end) // an empty section does not grow the file
+                {
+                    channel.write(ByteBuffer.allocate(1), end - 1);
+                }
+            } // the mappings stay valid after the channel is closed
+        }
+
+        /**
+         * writes the first edge of node, offset 0 of node 0 is already zero
+         */
+        private void putOffset(int node, long edge) {
+            offsets[node >>> CHUNK_SHIFT].put(node & CHUNK_MASK, (int) edge);
+        }
+
+        /**
+         * the number of buffers count values take
+         */
+        private static long chunks(long count) {
+            return Math.max(1, (count + CHUNK_MASK) >>> CHUNK_SHIFT);
+        }
+
+        /**
+         * allocates count zeroed ints in direct buffers
+         */
+        private static IntBuffer[] allocateInts(long count) {
+            IntBuffer[] chunks = new IntBuffer[(int) chunks(count)];
+            for (int i = 0; i < chunks.length; i++) {
+                int size = (int) Math.min(CHUNK_ELEMENTS, count - ((long) i << CHUNK_SHIFT));
+                chunks[i] = ByteBuffer.allocateDirect(size * Integer.BYTES).order(ByteOrder.nativeOrder())
+                        .asIntBuffer();
+            }
+            return chunks;
+        }
+
+        /**
+         * allocates count zeroed doubles in direct buffers
+         */
+        private static DoubleBuffer[] allocateDoubles(long count) {
+            DoubleBuffer[] chunks = new DoubleBuffer[(int) chunks(count)];
+            for (int i = 0; i < chunks.length; i++) {
+                int size = (int) Math.min(CHUNK_ELEMENTS, count - ((long) i << CHUNK_SHIFT));
+                chunks[i] = ByteBuffer.allocateDirect(size * Double.BYTES).order(ByteOrder.nativeOrder())
+                        .asDoubleBuffer();
+            }
+            return chunks;
+        }
+
+        /**
+         * maps chunk i of a section of count values of a given size read and write,
+         * growing the file as needed
+         */
+        private static MappedByteBuffer map(FileChannel channel, long position, long count, int bytes, int i)
+                throws IOException {
+            long first = (long) i << CHUNK_SHIFT;
+            long size = Math.max(0, Math.min(CHUNK_ELEMENTS, count - first)) * bytes;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position + first * bytes, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+}
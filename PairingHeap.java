@@ -0,0 +1,226 @@
+import java.util.NoSuchElementException;
+
+/**
+ * An indexed pairing heap. The heap is a tree where every node is not larger
+ * than its children; the children of a node form a linked list. Insert and
+ * decrease link a single node with the root in O(1), and removing the minimum
+ * pairs up the children of the root left to right and then melds the pairs
+ * right to left, amortized O(log n). With many decrease keys per removal, as
+ * on graphs with a high average degree, this beats the sifting of an array
+ * heap. The tree is kept in int arrays indexed by key so no node objects are
+ * created. A heap is not thread safe.
+ */
+public class PairingHeap implements IndexedPriorityQueue {
+    // instance variables
+    private final int maxElements; // the number of keys the heap can hold
+    private final double[] values; // the value of every queued key
+    private final int[] child; // the first child of every key, -1 if none
+    private final int[] sibling; // the next sibling of every key, -1 if none
+    private final int[] prev; // the previous sibling of every key, or its parent for a first child, -1 for the root
+    private final boolean[] queued; // true for every key in the heap
+    private final int[] scratch; // the subtrees being paired while the minimum is removed
+    private int root = -1; // the key with the smallest value, -1 when empty
+    private int currentNumNodes; // the number of queued keys
+    private SearchStats.Query stats; // the query the operations are counted for, null for none
+
+    /**
+     * @param maxSize the number of keys the heap can hold
+     */
+    public PairingHeap(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        maxElements = maxSize;
+        values = new double[maxSize];
+        child = new int[maxSize];
+        sibling = new int[maxSize];
+        prev = new int[maxSize];
+        queued = new boolean[maxSize];
+        scratch = new int[maxSize];
+    }
+
+    @Override
+    public int size() {
+        return currentNumNodes;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return currentNumNodes == 0;
+    }
+
+    @Override
+    public boolean contains(int key) {
+        keyInBoundsOrThrow(key);
+        return queued[key];
+    }
+
+    @Override
+    public int minKeyIndex() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Priority queue underflow");
+        }
+        return root;
+    }
+
+    @Override
+    public double minValue() {
+        return values[minKeyIndex()];
+    }
+
+    /**
+     * removes the root and melds its children with two passes
+     */
+    @Override
+    public int removeMinKeyIndex() {
+        int min = minKeyIndex();
+        int count = 0; // the number of children of the root
+        for (int c = child[min]; c != -1;) {
+            int following = sibling[c];
+            sibling[c] = prev[c] = -1;
+            scratch[count++] = c;
+            c = following;
+        }
+        int links = count; // subtrees linked while pairing
+        int pairs = 0;
+        for (int i = 0; i + 1 < count; i += 2) // first pass, left to right
+        {
+            scratch[pairs++] = link(scratch[i], scratch[i + 1]);
+        }
+        if ((count & 1) == 1) {
+            scratch[pairs++] = scratch[count - 1];
+        }
+        int merged = pairs == 0 ? -1 : scratch[pairs - 1];
+        for (int i = pairs - 2; i >= 0; i--) // second pass, right to left
+        {
+            merged = link(scratch[i], merged);
+        }
+        root = merged;
+        child[min] = -1;
+        queued[min] = false;
+        currentNumNodes--;
+        if (SearchStats.ENABLED && stats != null) {
+            stats.removals++;
+            stats.sift(links);
+        }
+        return min;
+    }
+
+    @Override
+    public double removeMinValue() {
+        return values[removeMinKeyIndex()];
+    }
+
+    @Override
+    public void insert(int key, double value) {
+        if (contains(key)) {
+            throw new IllegalArgumentException("index already exists; received: " + key);
+        }
+        valueNotNaNOrThrow(value);
+        values[key] = value;
+        child[key] = sibling[key] = prev[key] = -1;
+        queued[key] = true;
+        root = root == -1 ? key : link(root, key);
+        currentNumNodes++;
+        if (SearchStats.ENABLED && stats != null) {
+            stats.inserts++;
+        }
+    }
+
+    /**
+     * cuts the subtree of key from its parent and links it with the root
+     */
+    @Override
+    public void decrease(int key, double value) {
+        if (!contains(key)) {
+            throw new NoSuchElementException("Index does not exist; received: " + key);
+        }
+        valueNotNaNOrThrow(value);
+        if (value < values[key]) {
+            values[key] = value;
+            if (key != root) {
+                int before = prev[key];
+                if (child[before] == key) // key is the first child of before
+                {
+                    child[before] = sibling[key];
+                } else {
+                    sibling[before] = sibling[key];
+                }
+                if (sibling[key] != -1) {
+                    prev[sibling[key]] = before;
+                }
+                sibling[key] = prev[key] = -1;
+                root = link(root, key);
+            }
+            if (SearchStats.ENABLED && stats != null) {
+                stats.decreases++;
+            }
+        }
+    }
+
+    /**
+     * walks the tree to unmark every queued key
+     */
+    @Override
+    public void clear() {
+        int top = 0; // scratch is used as a stack of subtrees
+        if (root != -1) {
+            scratch[top++] = root;
+        }
+        while (top > 0) {
+            int key = scratch[--top];
+            queued[key] = false;
+            for (int c = child[key]; c != -1; c = sibling[c]) {
+                scratch[top++] = c;
+            }
+        }
+        root = -1;
+        currentNumNodes = 0;
+    }
+
+    @Override
+    public void setStats(SearchStats.Query query) {
+        stats = query;
+    }
+
+    // ---------------------------Helper
+    // functions-----------------------------------
+
+    /**
+     * makes the root with the larger value the first child of the other
+     *
+     * @return the root of the linked tree
+     */
+    private int link(int a, int b) {
+        if (values[b] < values[a]) {
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+        int first = child[a];
+        sibling[b] = first;
+        if (first != -1) {
+            prev[first] = b;
+        }
+        prev[b] = a;
+        child[a] = b;
+        return a;
+    }
+
+    /**
+     * NaN can not be ordered
+     */
+    private void valueNotNaNOrThrow(double value) {
+        if (Double.isNaN(value))
+            throw new IllegalArgumentException("value cannot be NaN");
+    }
+
+    /**
+     * checks whether the key is within the bounds of the heap
+     */
+    private void keyInBoundsOrThrow(int key) {
+        if (key < 0 || key >= maxElements) {
+            throw new IllegalArgumentException("Key index out of bounds; received: " + key);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+import java.util.Objects;
+
+/**
+ * Picks the priority queue Dijkstra uses from the statistics of the graph: the
+ * number of nodes, the average out degree and the range of the weights seen
+ * when the graph was built.
+ *
+ * <pre>
+ * whole steps, at most DIAL_MAX_BUCKETS   DialQueue, O(1) per operation
+ * whole steps, wider range                RadixHeap, amortized O(log C)
+ * any other weights                       d-ary heap, d from the average out degree
+ * </pre>
+ *
+ * The monotone queues are only correct because the weights are not negative,
+ * so negative weights always get the d-ary heap. A larger d makes the heap
+ * flatter, so the decrease keys that come with many edges per node sift up
+ * fewer levels while a removal compares more children per level. On random
+ * graphs d = 4 was fastest up to 16 edges per node, 8 up to a few hundred and
+ * 16 above. The pairing and lazy binary heaps were slower than the d-ary heap
+ * on every graph measured; they are only used when asked for with create.
+ */
+public final class PriorityQueues {
+    public static final long DIAL_MAX_BUCKETS = 1 << 16; // the most buckets a DialQueue is given
+
+    /**
+     * the kinds of IndexedPriorityQueue
+     */
+    public enum Kind {
+        D_ARY, PAIRING, LAZY_BINARY, DIAL, RADIX
+    }
+
+    // default constructor
+    private PriorityQueues() {
+    }
+
+    /**
+     * the queue for a graphEdge, picked from its node count, edge count and
+     * weights
+     *
+     * @param g the graph to search
+     * @return a new empty queue for g
+     */
+    public static IndexedPriorityQueue select(graphEdge g) {
+        long edges = 0;
+        for (int i = 0; i < g.graph.size(); i++) {
+            edges += g.graph.get(i).size();
+        }
+        return select(g.nodes, edges, g.getWeightRange());
+    }
+
+    /**
+     * @param n     the number of nodes of the graph
+     * @param edges the number of edges of the graph
+     * @param range the weights of the graph, null if not known
+     * @return a new empty queue for the graph
+     */
+    public static IndexedPriorityQueue select(int n, long edges, WeightRange range) {
+        return choose(n, edges, range).create(n);
+    }
+
+    /**
+     * picks the kind of queue and the heap degree without creating the queue
+     *
+     * @param n     the number of nodes of the graph
+     * @param edges the number of edges of the graph
+     * @param range the weights of the graph, null if not known
+     * @return the kind and degree to use
+     */
+    public static Choice choose(int n, long edges, WeightRange range) {
+        boolean monotone = range != null && range.getCount() > 0 && range.getMin() >= 0.0;
+        if (monotone && range.isFixedPrecision()) {
+            if (range.scaledMax() < DIAL_MAX_BUCKETS) {
+                return new Choice(Kind.DIAL, 0, range.getScale(), range.scaledMax());
+            }
+            return new Choice(Kind.RADIX, 0, 0, 0);
+        }
+        double averageDegree = n > 0 ? (double) edges / n : 0.0;
+        return new Choice(Kind.D_ARY, degreeFor(averageDegree), 0, 0);
+    }
+
+    /**
+     * @param averageDegree the edges per node of the graph
+     * @return the heap degree that searches the graph fastest
+     */
+    public static int degreeFor(double averageDegree) {
+        if (averageDegree < 16) {
+            return 4;
+        }
+        return averageDegree < 256 ? 8 : 16;
+    }
+
+    /**
+     * creates a queue of a given kind
+     *
+     * @param kind   the kind of queue
+     * @param degree the degree of a D_ARY heap, ignored by the other kinds
+     * @param n      the number of keys the queue holds
+     * @param range  the weights of the graph, needed for DIAL
+     * @return a new empty queue
+     */
+    public static IndexedPriorityQueue create(Kind kind, int degree, int n, WeightRange range) {
+        if (kind == Kind.DIAL) {
+            if (range == null || !range.isFixedPrecision()) {
+                throw new IllegalArgumentException("a DialQueue needs weights of a fixed precision");
+            }
+            return new Choice(kind, 0, range.getScale(), range.scaledMax()).create(n);
+        }
+        return new Choice(kind, degree, 0, 0).create(n);
+    }
+
+    // -------------------nested classes--------------------------------------------
+
+    /**
+     * the kind of queue and its parameters picked for a graph. Equal choices
+     * create equal queues, so a QueryWorkspace can keep one queue per thread.
+     */
+    public static final class Choice {
+        private final Kind kind; // the kind of queue
+        private final int degree; // the degree of a D_ARY heap, 0 for the other kinds
+        private final long scale; // the steps per unit of a DIAL queue, 0 for the other kinds
+        private final long maxWeight; // the largest weight in steps of a DIAL queue, 0 for the other kinds
+
+        private Choice(Kind kind, int degree, long scale, long maxWeight) {
+            this.kind = kind;
+            this.degree = degree;
+            this.scale = scale;
+            this.maxWeight = maxWeight;
+        }
+
+        /**
+         * @param n the number of keys the queue holds
+         * @return a new empty queue of this choice
+         */
+        public IndexedPriorityQueue create(int n) {
+            switch (kind) {
+            case D_ARY:
+                return new MinIndexedDoubleDHeap(degree, n);
+            case PAIRING:
+                return new PairingHeap(n);
+            case LAZY_BINARY:
+                return new LazyBinaryHeap(n);
+            case DIAL:
+                return new DialQueue(n, scale, maxWeight);
+            case RADIX:
+                return new RadixHeap(n);
+            default:
+                throw new IllegalArgumentException("unknown queue kind: " + kind);
+            }
+        }
+
+        /**
+         * @return the kind of queue
+         */
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return the degree of a D_ARY heap, 0 for the other kinds
+         */
+        public int getDegree() {
+            return degree;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Choice)) {
+                return false;
+            }
+            Choice choice = (Choice) other;
+            return kind == choice.kind && degree == choice.degree && scale == choice.scale
+                    && maxWeight == choice.maxWeight;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, degree, scale, maxWeight);
+        }
+
+        @Override
+        public String toString() {
+            return kind == Kind.D_ARY ? degree + "-ary heap" : kind.toString();
+        }
+    }
+}
@@ -0,0 +1,280 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Solves many actor problems in one JVM instead of one JVM per problem. The
+ * problems are the input.txt files of a directory, taken in the order of
+ * their names, or one stream of input.txt problems written back to back. Every
+ * problem is solved on a pool of threads and the answers are written in the
+ * order of the input, each in the two line output.txt form.
+ *
+ * A semaphore caps the problems that are read but not yet solved, so a large
+ * batch never holds more than that many discount matrices at once. The files
+ * of a directory are also parsed on the pool; a stream can only be read in
+ * order, so its problems are parsed by the caller and solved on the pool.
+ */
+public class ProblemBatch implements AutoCloseable {
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors(); // the default pool size
+    public static final int DEFAULT_PERMITS = 2 * DEFAULT_THREADS; // the default number of problems in flight
+    private static final int BUFFER_BYTES = 1 << 16; // the size of the output buffer
+
+    // instance variables
+    private final ExecutorService executor; // the threads the problems are solved on
+    private final Semaphore inFlight; // one permit per problem read but not yet solved
+
+    /**
+     * a batch runner with DEFAULT_THREADS threads and DEFAULT_PERMITS problems in
+     * flight
+     */
+    public ProblemBatch() {
+        this(DEFAULT_THREADS, DEFAULT_PERMITS);
+    }
+
+    /**
+     * @param threads the number of threads solving problems
+     * @param permits the most problems held in memory at once
+     */
+    public ProblemBatch(int threads, int permits) {
+        if (threads <= 0 || permits <= 0) {
+            throw new IllegalArgumentException("threads and permits must be positive");
+        }
+        executor = Executors.newFixedThreadPool(Math.min(threads, permits));
+        inFlight = new Semaphore(permits);
+    }
+
+    /**
+     * solves the problems of a directory or of a concatenated problem file and
+     * writes the answers to a file
+     *
+     * @param input  a directory of input.txt files or one file of problems
+     * @param output the file to write the answers to
+     * @return the number of problems solved
+     * @throws IOException if a problem can not be read or solved, or the output
+     *                     can not be written
+     */
+    public int solve(File input, File output) throws IOException {
+        try (OutputStream out = new FileOutputStream(output)) {
+            if (input.isDirectory()) {
+                return solveDirectory(input, out);
+            }
+            try (FileChannel channel = FileChannel.open(input.toPath(), StandardOpenOption.READ)) {
+                return solveStream(channel, out);
+            }
+        }
+    }
+
+    /**
+     * solves every .txt file of a directory in the order of the file names. The
+     * stream is flushed but not closed.
+     *
+     * @param directory the directory of input.txt files
+     * @param out       the stream to write the answers to
+     * @return the number of problems solved
+     * @throws IOException if a problem can not be read or solved, or the stream
+     *                     can not be written
+     */
+    public int solveDirectory(File directory, OutputStream out) throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".txt"));
+        if (files == null) {
+            throw new IOException("not a directory: " + directory);
+        }
+        Arrays.sort(files);
+        Iterator<File> names = Arrays.asList(files).iterator();
+        return run(new Iterator<Callable<ActorProblem>>() {
+            @Override
+            public boolean hasNext() {
+                return names.hasNext();
+            }
+
+            @Override
+            public Callable<ActorProblem> next() {
+                File file = names.next();
+                return () -> ActorProblem.read(file); // parsed on the pool
+            }
+        }, out);
+    }
+
+    /**
+     * solves the problems of a stream of input.txt problems written back to
+     * back. The stream is flushed but not closed.
+     *
+     * @param channel the problems
+     * @param out     the stream to write the answers to
+     * @return the number of problems solved
+     * @throws IOException if a problem can not be read or solved, or the stream
+     *                     can not be written
+     */
+    public int solveStream(ReadableByteChannel channel, OutputStream out) throws IOException {
+        ByteTokenizer in = new ByteTokenizer(channel);
+        try {
+            return run(new Iterator<Callable<ActorProblem>>() {
+                @Override
+                public boolean hasNext() {
+                    return in.hasNext();
+                }
+
+                @Override
+                public Callable<ActorProblem> next() {
+                    ActorProblem problem = ActorProblem.read(in); // the stream is read in order
+                    return () -> problem;
+                }
+            }, out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * stops the threads, problems still running are finished first
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * the cheapest hire of one problem, the answer of Menu.run
+     *
+     * @param problem the problem to solve
+     * @return the distance and path of the target actor
+     */
+    public static Answer solve(ActorProblem problem) {
+        int n = problem.getActors();
+        int target = problem.getTarget() - 1;
+        Dijkstra dj = new Dijkstra(new ImplicitActorGraph(problem));
+        double distance = dj.dijkstra(n, target); // the store is the last node
+        return new Answer(distance, dj.reconstructPath(n, target, n + 1, distance));
+    }
+
+    // ---------------------------Helper
+    // functions-----------------------------------
+
+    /**
+     * submits every problem once a permit is free and writes the answers at the
+     * head of the queue as soon as they are done, so the answers leave in input
+     * order while later problems are still solved
+     */
+    private int run(Iterator<Callable<ActorProblem>> problems, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), BUFFER_BYTES);
+        ArrayDeque<Future<Answer>> pending = new ArrayDeque<>(); // the answers not written yet, in input order
+        int submitted = 0;
+        int written = 0;
+        try {
+            while (problems.hasNext()) {
+                acquire();
+                Callable<ActorProblem> reader;
+                try {
+                    reader = problems.next();
+                } catch (RuntimeException e) // a problem of the stream is cut off or malformed
+                {
+                    inFlight.release();
+                    throw new IOException("problem " + submitted + " can not be read", e);
+                }
+                pending.add(executor.submit(() -> {
+                    try {
+                        return solve(reader.call());
+                    } finally {
+                        inFlight.release(); // the matrix may be collected, only the answer is kept
+                    }
+                }));
+                submitted++;
+                while (!pending.isEmpty() && pending.peek().isDone()) // write what is already done
+                {
+                    write(pending.poll(), written++, writer);
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(pending.poll(), written++, writer);
+            }
+        } finally {
+            for (Future<Answer> answer : pending) // only left after a failure
+            {
+                answer.cancel(true);
+            }
+        }
+        writer.flush();
+        return submitted;
+    }
+
+    /**
+     * waits for one answer and writes it as output.txt does
+     */
+    private static void write(Future<Answer> answer, int index, Writer writer) throws IOException {
+        Answer result;
+        try {
+            result = answer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for problem " + index);
+        } catch (ExecutionException e) {
+            throw new IOException("problem " + index + " failed", e.getCause());
+        }
+        writer.write(Double.toString(result.getDistance()));
+        writer.write(System.lineSeparator());
+        writer.write(result.getPath().toString());
+        writer.write(System.lineSeparator());
+    }
+
+    /**
+     * waits for a free permit
+     */
+    private void acquire() throws InterruptedIOException {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a permit");
+        }
+    }
+
+    // -------------------nested classes--------------------------------------------
+
+    /**
+     * the answer to one problem: the cheapest cost of the target actor and the
+     * actors hired on the way, counted from 1
+     */
+    public static final class Answer {
+        private final double distance; // the cost of hiring the target actor
+        private final List<Integer> path; // the actors hired on the way, the target last
+
+        private Answer(double distance, List<Integer> path) {
+            this.distance = distance;
+            this.path = path;
+        }
+
+        /**
+         * @return the cost of hiring the target actor
+         */
+        public double getDistance() {
+            return distance;
+        }
+
+        /**
+         * @return the actors hired on the way, counted from 1, the target last
+         */
+        public List<Integer> getPath() {
+            return path;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the answers of recent Dijkstra queries so repeated queries are a
+ * map lookup instead of a search. Answers are kept per (start, end) pair in a
+ * least recently used map of bounded size. Optionally the whole shortest path
+ * tree of a start node is kept instead, which answers the query to every end
+ * node from that start. The path to an end is read from the tree the first
+ * time it is asked for and kept with the tree, so a repeated query is a lookup
+ * in either mode.
+ *
+ * Every answer belongs to the graph version it was computed for. When the
+ * version of the graph changes (graphEdge.addEdge or updateEdge) the cache
+ * empties itself on the next query. The cache is not thread safe.
+ */
+public class QueryCache {
+    // instance variables
+    private final Dijkstra dijkstra; // answers the queries that are not cached
+    private final int numberOfNodes; // the number of nodes of the graph
+    private final LinkedHashMap<Long, Answer> answers; // the answer of every cached (start, end) pair
+    private final LinkedHashMap<Integer, Tree> trees; // the shortest path tree of every cached start
+    private final boolean cacheTrees; // true if misses search the whole tree of start
+    private long version; // the graph version of everything in the cache
+    private long hits; // queries answered from the cache
+    private long misses; // queries that needed a search
+    private long evictions; // answers and trees dropped to make room
+    private long invalidations; // times the cache was emptied because the graph changed
+
+    /**
+     * a cache of (start, end) answers
+     *
+     * @param dijkstra the searcher to answer misses with
+     * @param n        the number of nodes of the graph
+     * @param capacity the most answers kept
+     */
+    public QueryCache(Dijkstra dijkstra, int n, int capacity) {
+        this(dijkstra, n, capacity, false);
+    }
+
+    /**
+     * @param dijkstra   the searcher to answer misses with
+     * @param n          the number of nodes of the graph
+     * @param capacity   the most answers kept, or the most trees when cacheTrees
+     *                   is true
+     * @param cacheTrees true to keep the whole shortest path tree of every start
+     *                   instead of single answers
+     */
+    public QueryCache(Dijkstra dijkstra, int n, int capacity, boolean cacheTrees) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive; received: " + capacity);
+        }
+        this.dijkstra = dijkstra;
+        numberOfNodes = n;
+        this.cacheTrees = cacheTrees;
+        version = dijkstra.graphVersion();
+        answers = new LinkedHashMap<Long, Answer>(16, 0.75f, true) // access order, eldest is least recently used
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Answer> eldest) {
+                return evicted(size() > capacity);
+            }
+        };
+        trees = new LinkedHashMap<Integer, Tree>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Tree> eldest) {
+                return evicted(size() > capacity);
+            }
+        };
+    }
+
+    /**
+     * @param start the starting node
+     * @param end   the ending node
+     * @return the weight of the shortest path, positive infinity if there is none
+     */
+    public double distance(int start, int end) {
+        return answer(start, end).distance;
+    }
+
+    /**
+     * the shortest path in the form of Dijkstra.reconstructPath: the nodes after
+     * start up to end, counted from 1. The list is shared by every caller and can
+     * not be changed.
+     *
+     * @param start the starting node
+     * @param end   the ending node
+     * @return the nodes of the path, empty if there is none
+     */
+    public List<Integer> path(int start, int end) {
+        return answer(start, end).path;
+    }
+
+    /**
+     * @return the number of queries answered from the cache
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of queries that needed a search
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of answers and trees dropped to make room
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of times the cache was emptied because the graph changed
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * @return the number of answers or trees currently cached
+     */
+    public int size() {
+        return cacheTrees ? trees.size() : answers.size();
+    }
+
+    /**
+     * empties the cache, the counters are kept
+     */
+    public void clear() {
+        answers.clear();
+        trees.clear();
+    }
+
+    // ---------------------------Helper
+    // functions-----------------------------------
+
+    /**
+     * finds the answer of a query in the cache or searches for it
+     */
+    private Answer answer(int start, int end) {
+        if (start < 0 || start >= numberOfNodes || end < 0 || end >= numberOfNodes) {
+            throw new IllegalArgumentException("Invalid node index");
+        }
+        long current = dijkstra.graphVersion();
+        if (current != version) // the graph changed, nothing cached is valid
+        {
+            clear();
+            version = current;
+            invalidations++;
+        }
+        if (cacheTrees) {
+            Tree tree = trees.get(start);
+            if (tree != null) {
+                hits++;
+            } else {
+                misses++;
+                double[] distance = dijkstra.distancesFrom(start); // also fills previous for the whole graph
+                tree = new Tree(distance, dijkstra.previous.clone());
+                trees.put(start, tree);
+            }
+            return tree.answer(start, end);
+        }
+        Long key = ((long) start << 32) | end; // start and end never negative
+        Answer answer = answers.get(key);
+        if (answer != null) {
+            hits++;
+            return answer;
+        }
+        misses++;
+        double distance = dijkstra.dijkstra(start, end);
+        answer = new Answer(distance, walk(dijkstra.previous, start, end, distance));
+        answers.put(key, answer);
+        return answer;
+    }
+
+    /**
+     * counts an eviction when removing is true
+     */
+    private boolean evicted(boolean removing) {
+        if (removing) {
+            evictions++;
+        }
+        return removing;
+    }
+
+    /**
+     * follows previous back from end to start the way Dijkstra.reconstructPath
+     * does, adding 1 to every node
+     */
+    private static List<Integer> walk(int[] previous, int start, int end, double distance) {
+        if (distance == Double.POSITIVE_INFINITY) {
+            return Collections.emptyList();
+        }
+        List<Integer> path = new ArrayList<>();
+        for (int at = end; at != start; at = previous[at]) {
+            path.add(at + 1);
+        }
+        Collections.reverse(path);
+        return Collections.unmodifiableList(path);
+    }
+
+    // -------------------nested classes--------------------------------------------
+
+    /**
+     * the distance and path of one query
+     */
+    private static class Answer {
+        final double distance;
+        final List<Integer> path;
+
+        Answer(double distance, List<Integer> path) {
+            this.distance = distance;
+            this.path = path;
+        }
+    }
+
+    /**
+     * the distance and previous arrays of a whole search from one start, and the
+     * answer of every end asked for so far
+     */
+    private static class Tree {
+        final double[] distance;
+        final int[] previous;
+        final Answer[] answers; // the answer of every end, null until it is asked for
+
+        Tree(double[] distance, int[] previous) {
+            this.distance = distance;
+            this.previous = previous;
+            answers = new Answer[distance.length];
+        }
+
+        Answer answer(int start, int end) {
+            Answer answer = answers[end];
+            if (answer == null) // the first query to end walks the tree once
+            {
+                answer = new Answer(distance[end], walk(previous, start, end, distance[end]));
+                answers[end] = answer;
+            }
+            return answer;
+        }
+    }
+}
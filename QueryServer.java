@@ -0,0 +1,345 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A resident server that loads named graphs once and answers distance and
+ * path queries over HTTP on the loopback address, so a query costs one search
+ * instead of starting a JVM, parsing the input and building the graph. Nodes
+ * are counted from 0 as in Dijkstra and a path lists every node from the
+ * source to the target.
+ *
+ * <pre>
+ * GET  /graphs                          one line "name nodes edges" per graph
+ * GET  /distance?graph=g&amp;from=s&amp;to=t    the distance, Infinity if there is no path
+ * GET  /path?graph=g&amp;from=s&amp;to=t        the distance and the path, as "60.0 [3, 2, 0]"
+ * POST /batch?graph=g[&amp;paths=true]      a body of "from to" pairs, one answer line per pair
+ * </pre>
+ *
+ * Connections are kept alive, so a client can pipeline many requests over one
+ * connection. The pairs of a batch that share a source are answered from one
+ * ShortestPathTree instead of a search each. Requests run on a pool of
+ * threads, each with its own Dijkstra per graph over the shared read only
+ * graph.
+ */
+public class QueryServer implements AutoCloseable {
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors(); // the default pool size
+
+    static {
+        // the answers are a few bytes, so with Nagle's algorithm each one waits for
+        // the delayed ack of the client, about 40 ms on loopback. The property is
+        // read once, when the first HttpServer of the JVM is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    // instance variables
+    private final Map<String, Graph> graphs = new ConcurrentHashMap<>(); // the loaded graphs by name
+    private final HttpServer server; // the HTTP endpoint
+    private final ExecutorService executor; // the threads the requests run on
+
+    /**
+     * a server on the loopback address with DEFAULT_THREADS threads
+     *
+     * @param port the port to listen on, 0 for any free port
+     * @throws IOException if the port can not be bound
+     */
+    public QueryServer(int port) throws IOException {
+        this(port, DEFAULT_THREADS);
+    }
+
+    /**
+     * @param port    the port to listen on, 0 for any free port
+     * @param threads the number of threads answering requests
+     * @throws IOException if the port can not be bound
+     */
+    public QueryServer(int port, int threads) throws IOException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * starts answering requests
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return the port the server listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * loads a graph file under a name: a .bin file is mapped as a
+     * BinaryGraphFile, any other file is read as an input.txt actor problem
+     *
+     * @param name the name queries use
+     * @param file the file to load
+     * @throws IOException if the file can not be read
+     */
+    public void load(String name, File file) throws IOException {
+        if (file.getName().endsWith(".bin")) {
+            register(name, BinaryGraphFile.map(file));
+        } else {
+            register(name, new ImplicitActorGraph(ActorProblem.read(file)));
+        }
+    }
+
+    /**
+     * serves a graph under a name, replacing any graph of that name. The graph
+     * must not be changed while it is served.
+     *
+     * @param name  the name queries use
+     * @param graph the graph to serve
+     */
+    public void register(String name, NeighborGraph graph) {
+        graphs.put(name, new Graph(graph));
+    }
+
+    /**
+     * stops listening and stops the threads once the running requests are done
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    // ---------------------------Helper
+    // functions-----------------------------------
+
+    /**
+     * answers one request, a bad request gets a 400 and an unknown graph or path a
+     * 404 with the reason as the body
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            Map<String, String> parameters = parameters(exchange.getRequestURI().getRawQuery());
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/graphs")) {
+                send(exchange, 200, listGraphs());
+                return;
+            }
+            if (!path.equals("/distance") && !path.equals("/path") && !path.equals("/batch")) {
+                send(exchange, 404, "unknown path: " + path + "\n");
+                return;
+            }
+            String name = parameters.get("graph");
+            Graph graph = name == null ? null : graphs.get(name);
+            if (graph == null) {
+                send(exchange, 404, "unknown graph: " + name + "\n");
+                return;
+            }
+            if (path.equals("/batch")) {
+                send(exchange, 200, batch(graph, exchange, "true".equals(parameters.get("paths"))));
+            } else {
+                int from = node(parameters, "from");
+                int to = node(parameters, "to");
+                send(exchange, 200, answer(graph, from, to, path.equals("/path")));
+            }
+        } catch (IllegalArgumentException | NoSuchElementException e) // bad numbers, nodes or pairs
+        {
+            send(exchange, 400, e.getMessage() + "\n");
+        } catch (RuntimeException e) {
+            send(exchange, 500, e + "\n");
+        }
+    }
+
+    /**
+     * one line "name nodes edges" per graph
+     */
+    private String listGraphs() {
+        StringBuilder body = new StringBuilder();
+        for (Map.Entry<String, Graph> entry : graphs.entrySet()) {
+            NeighborGraph g = entry.getValue().graph;
+            body.append(entry.getKey()).append(' ').append(g.size()).append(' ').append(g.edgeCount()).append('\n');
+        }
+        return body.toString();
+    }
+
+    /**
+     * the answer line of a single query
+     */
+    private static String answer(Graph graph, int from, int to, boolean withPath) {
+        checkNode(graph, from);
+        checkNode(graph, to);
+        Dijkstra dj = graph.searcher.get();
+        double distance = dj.dijkstra(from, to);
+        StringBuilder line = new StringBuilder().append(distance);
+        if (withPath) {
+            line.append(' ');
+            appendPath(line, from, dj.reconstructPath(from, to, graph.graph.size(), distance), distance);
+        }
+        return line.append('\n').toString();
+    }
+
+    /**
+     * answers the "from to" pairs of a request body in order. The pairs are
+     * grouped by source; a source asked for more than once is searched once for
+     * its whole tree, and the tree is dropped before the next source is searched.
+     */
+    private static String batch(Graph graph, HttpExchange exchange, boolean withPaths) {
+        ByteTokenizer in = new ByteTokenizer(Channels.newChannel(exchange.getRequestBody()));
+        List<int[]> pairs = new ArrayList<>();
+        Map<Integer, List<Integer>> bySource = new LinkedHashMap<>(); // the indices of the pairs of every source
+        try {
+            while (in.hasNext()) {
+                int[] pair = { in.nextInt(), in.nextInt() };
+                checkNode(graph, pair[0]);
+                checkNode(graph, pair[1]);
+                bySource.computeIfAbsent(pair[0], s -> new ArrayList<>()).add(pairs.size());
+                pairs.add(pair);
+            }
+        } catch (UncheckedIOException e) {
+            throw new IllegalArgumentException("request body can not be read", e);
+        }
+        String[] answers = new String[pairs.size()]; // the answer lines in input order
+        int[] buffer = null; // the nodes of a path read from a tree
+        for (Map.Entry<Integer, List<Integer>> group : bySource.entrySet()) {
+            int from = group.getKey();
+            List<Integer> indices = group.getValue();
+            if (indices.size() == 1) // a single query stops at its target
+            {
+                int index = indices.get(0);
+                answers[index] = answer(graph, from, pairs.get(index)[1], withPaths);
+                continue;
+            }
+            ShortestPathTree tree = graph.searcher.get().shortestPathTree(from);
+            StringBuilder line = new StringBuilder();
+            for (int index : indices) {
+                int to = pairs.get(index)[1];
+                double distance = tree.distance(to);
+                line.setLength(0);
+                line.append(distance);
+                if (withPaths) {
+                    if (buffer == null) {
+                        buffer = new int[tree.size()];
+                    }
+                    int length = tree.path(to, buffer);
+                    line.append(" [");
+                    if (distance != Double.POSITIVE_INFINITY) {
+                        line.append(from);
+                        for (int i = 0; i < length; i++) {
+                            line.append(", ").append(buffer[i]);
+                        }
+                    }
+                    line.append(']');
+                }
+                answers[index] = line.append('\n').toString();
+            }
+        }
+        StringBuilder body = new StringBuilder();
+        for (String answer : answers) {
+            body.append(answer);
+        }
+        return body.toString();
+    }
+
+    /**
+     * appends the path from the source as "[from, a, b]". reconstructPath counts
+     * the nodes after the source from 1, the server counts from 0.
+     */
+    private static void appendPath(StringBuilder line, int from, List<Integer> after, double distance) {
+        line.append('[');
+        if (distance != Double.POSITIVE_INFINITY) {
+            line.append(from);
+            for (int node : after) {
+                line.append(", ").append(node - 1);
+            }
+        }
+        line.append(']');
+    }
+
+    /**
+     * a node parameter of the request
+     */
+    private static int node(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("missing parameter: " + name);
+        }
+        return Integer.parseInt(value);
+    }
+
+    /**
+     * checks whether the node is within the bounds of the graph
+     */
+    private static void checkNode(Graph graph, int node) {
+        if (node < 0 || node >= graph.graph.size()) {
+            throw new IllegalArgumentException("Invalid node index");
+        }
+    }
+
+    /**
+     * the decoded parameters of a query string
+     */
+    private static Map<String, String> parameters(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * sends a plain text response and closes the exchange, the connection stays
+     * open for the next request
+     */
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.US_ASCII);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=us-ascii");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // -------------------nested classes--------------------------------------------
+
+    /**
+     * a served graph and the Dijkstra of every request thread over it
+     */
+    private static final class Graph {
+        private final NeighborGraph graph; // the shared read only graph
+        private final ThreadLocal<Dijkstra> searcher; // the searches of one thread, reusing its solvers
+
+        private Graph(NeighborGraph graph) {
+            this.graph = graph;
+            searcher = ThreadLocal.withInitial(() -> new Dijkstra(graph));
+        }
+    }
+}
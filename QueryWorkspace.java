@@ -0,0 +1,180 @@
+import java.util.Arrays;
+
+/**
+ * The per query state of Dijkstra's algorithm: the priority heap, the distance
+ * and previous arrays and the visited flags. A workspace is reused between
+ * queries instead of allocating and filling new arrays every time. Every entry
+ * carries the epoch of the query that last wrote it, so starting a new query
+ * only increments the epoch and entries from older queries read as
+ * undiscovered. The cost of a query therefore depends on the nodes it touches
+ * and not on the size of the graph.
+ *
+ * Workspaces are not thread safe, forThread hands out one per thread.
+ */
+public class QueryWorkspace {
+    // one small array of workspaces per thread, one slot per search direction
+    private static final ThreadLocal<QueryWorkspace[]> POOL = ThreadLocal.withInitial(() -> new QueryWorkspace[2]);
+
+    // instance variables
+    private final int capacity; // the number of nodes this workspace can hold
+    private final MinIndexedDoubleDHeap priorityHeap; // the heap of the next most promising nodes
+    private IndexedPriorityQueue queue; // the queue last picked by PriorityQueues, created on first use
+    private PriorityQueues.Choice queueChoice; // the choice queue was created for
+    private final double[] distance; // the distance of every touched node
+    private final int[] previous; // the previous node on the path of every touched node
+    private final int[] touched; // epoch in which distance and previous were last written
+    private final int[] settled; // epoch in which the node was last visited
+    private final int[] reached; // the nodes touched by the current query in the order they were reached
+    private int reachedCount; // the number of nodes in reached
+    private int epoch; // the epoch of the current query
+
+    /**
+     * creates a workspace for graphs of up to n nodes
+     *
+     * @param n the number of nodes
+     */
+    public QueryWorkspace(int n) {
+        capacity = n;
+        priorityHeap = new MinIndexedDoubleDHeap(2, n);
+        distance = new double[n];
+        previous = new int[n];
+        touched = new int[n];
+        settled = new int[n];
+        reached = new int[n];
+    }
+
+    /**
+     * returns the workspace of the calling thread, replacing it if it is too small
+     * for n nodes.
+     *
+     * @param n the number of nodes of the graph to search
+     * @return the workspace of the calling thread
+     */
+    public static QueryWorkspace forThread(int n) {
+        return forThread(n, 0);
+    }
+
+    /**
+     * returns one of the workspaces of the calling thread. Searches that run two
+     * directions at once use a different slot for each direction.
+     *
+     * @param n    the number of nodes of the graph to search
+     * @param slot the workspace slot, 0 or 1
+     * @return the workspace of the calling thread in slot
+     */
+    public static QueryWorkspace forThread(int n, int slot) {
+        QueryWorkspace[] pool = POOL.get();
+        QueryWorkspace workspace = pool[slot];
+        if (workspace == null || workspace.capacity < n) // create or grow the workspace
+        {
+            workspace = new QueryWorkspace(n);
+            pool[slot] = workspace;
+        }
+        return workspace;
+    }
+
+    /**
+     * starts a new query. Every node becomes undiscovered and unvisited and the
+     * heap is emptied.
+     */
+    public void begin() {
+        priorityHeap.clear();
+        reachedCount = 0;
+        if (++epoch == Integer.MAX_VALUE) // the stamps would overflow so reset them once
+        {
+            Arrays.fill(touched, 0);
+            Arrays.fill(settled, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * @return the heap of the current query
+     */
+    public MinIndexedDoubleDHeap heap() {
+        return priorityHeap;
+    }
+
+    /**
+     * the queue of the current query for a choice of PriorityQueues. The queue is
+     * kept and reused while the same choice is asked for, so only a change of
+     * graph creates a new one.
+     *
+     * @param choice the kind and parameters of the queue
+     * @return the empty queue
+     */
+    public IndexedPriorityQueue queue(PriorityQueues.Choice choice) {
+        if (!choice.equals(queueChoice)) {
+            queue = choice.create(capacity);
+            queueChoice = choice;
+        } else {
+            queue.clear();
+        }
+        return queue;
+    }
+
+    /**
+     * @param node the node to look up
+     * @return the best known distance of node or infinity if it was not reached
+     */
+    public double distance(int node) {
+        return touched[node] == epoch ? distance[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @param node the node to look up
+     * @return the previous node on the best known path or -1 if it was not reached
+     */
+    public int previous(int node) {
+        return touched[node] == epoch ? previous[node] : -1;
+    }
+
+    /**
+     * records a new best distance for node.
+     *
+     * @param node     the node that was reached
+     * @param value    the new distance
+     * @param prevNode the node it was reached from
+     */
+    public void setDistance(int node, double value, int prevNode) {
+        if (touched[node] != epoch) // reached for the first time in this query
+        {
+            reached[reachedCount++] = node;
+            touched[node] = epoch;
+        }
+        distance[node] = value;
+        previous[node] = prevNode;
+    }
+
+    /**
+     * @param node the node to look up
+     * @return true if node was visited in the current query
+     */
+    public boolean isVisited(int node) {
+        return settled[node] == epoch;
+    }
+
+    /**
+     * marks node as visited in the current query
+     *
+     * @param node the visited node
+     */
+    public void visit(int node) {
+        settled[node] = epoch;
+    }
+
+    /**
+     * copies the previous node of every node reached in the current query. The
+     * other entries of into are left as they are; walking it from a reached node
+     * back to the start only visits reached nodes. The cost depends on the nodes
+     * reached, not on the size of the graph.
+     *
+     * @param into the array to copy into, at least as long as the graph
+     */
+    public void copyPrevious(int[] into) {
+        for (int i = 0; i < reachedCount; i++) {
+            int node = reached[i];
+            into[node] = previous[node];
+        }
+    }
+}
@@ -0,0 +1,237 @@
+import java.util.NoSuchElementException;
+
+/**
+ * A monotone radix heap. Every value is compared by the bits of its double,
+ * which for values that are not negative are ordered the same way as the
+ * values themselves. Bucket 0 holds the keys whose bits equal those of the
+ * last removed minimum and bucket i the keys whose highest differing bit is
+ * bit i - 1. Insert and decrease only link the key into a bucket. When bucket
+ * 0 is empty the first bucket that is not is emptied into the lower ones
+ * around its smallest value, and every key can only move down 64 times, so an
+ * operation costs amortized O(log C) for a range of C steps instead of the
+ * O(log n) sifts of a heap.
+ *
+ * The queue is monotone: a value below the last removed minimum throws an
+ * IllegalArgumentException. A queue is not thread safe.
+ */
+public class RadixHeap implements IndexedPriorityQueue {
+    private static final int BUCKETS = 65; // bucket 0 and one bucket per bit of a long
+
+    // instance variables
+    private final int maxElements; // the number of keys the queue can hold
+    private final int[] head; // the first key of every bucket, -1 if empty
+    private final int[] next; // the next key in the bucket of every key, -1 at the end
+    private final int[] prev; // the previous key in the bucket of every key, -1 at the front
+    private final int[] bucketOf; // the bucket of every key, -1 if not queued
+    private final long[] bits; // the bits of the value of every queued key
+    private final double[] values; // the value of every queued key
+    private int currentNumNodes; // the number of queued keys
+    private long last; // the bits of the last removed minimum
+    private SearchStats.Query stats; // the query the operations are counted for, null for none
+
+    /**
+     * @param maxSize the number of keys the queue can hold
+     */
+    public RadixHeap(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize <= 0");
+        }
+        maxElements = maxSize;
+        head = new int[BUCKETS];
+        next = new int[maxSize];
+        prev = new int[maxSize];
+        bucketOf = new int[maxSize];
+        bits = new long[maxSize];
+        values = new double[maxSize];
+        for (int i = 0; i < BUCKETS; i++) {
+            head[i] = -1;
+        }
+        for (int i = 0; i < maxSize; i++) {
+            bucketOf[i] = -1;
+        }
+    }
+
+    @Override
+    public int size() {
+        return currentNumNodes;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return currentNumNodes == 0;
+    }
+
+    @Override
+    public boolean contains(int key) {
+        keyInBoundsOrThrow(key);
+        return bucketOf[key] != -1;
+    }
+
+    /**
+     * refills bucket 0 from the first bucket that is not empty when needed
+     */
+    @Override
+    public int minKeyIndex() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Priority queue underflow");
+        }
+        if (head[0] == -1) {
+            int bucket = 1;
+            while (head[bucket] == -1) {
+                bucket++;
+            }
+            long min = Long.MAX_VALUE; // the smallest bits in the bucket become the new last
+            for (int key = head[bucket]; key != -1; key = next[key]) {
+                min = Math.min(min, bits[key]);
+            }
+            last = min;
+            int moved = 0;
+            for (int key = head[bucket]; key != -1;) // every key lands in a lower bucket
+            {
+                int following = next[key];
+                link(key, bucketIndex(bits[key]));
+                key = following;
+                moved++;
+            }
+            head[bucket] = -1;
+            if (SearchStats.ENABLED && stats != null) {
+                stats.sift(moved);
+            }
+        }
+        return head[0];
+    }
+
+    @Override
+    public double minValue() {
+        return values[minKeyIndex()];
+    }
+
+    @Override
+    public int removeMinKeyIndex() {
+        int key = minKeyIndex();
+        unlink(key);
+        currentNumNodes--;
+        if (SearchStats.ENABLED && stats != null) {
+            stats.removals++;
+        }
+        return key;
+    }
+
+    @Override
+    public double removeMinValue() {
+        return values[removeMinKeyIndex()];
+    }
+
+    @Override
+    public void insert(int key, double value) {
+        if (contains(key)) {
+            throw new IllegalArgumentException("index already exists; received: " + key);
+        }
+        long b = bitsOrThrow(value);
+        bits[key] = b;
+        values[key] = value;
+        link(key, bucketIndex(b));
+        currentNumNodes++;
+        if (SearchStats.ENABLED && stats != null) {
+            stats.inserts++;
+        }
+    }
+
+    @Override
+    public void decrease(int key, double value) {
+        if (!contains(key)) {
+            throw new NoSuchElementException("Index does not exist; received: " + key);
+        }
+        if (value < values[key]) {
+            long b = bitsOrThrow(value);
+            unlink(key);
+            bits[key] = b;
+            values[key] = value;
+            link(key, bucketIndex(b));
+            if (SearchStats.ENABLED && stats != null) {
+                stats.decreases++;
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int bucket = 0; bucket < BUCKETS && currentNumNodes > 0; bucket++) {
+            for (int key = head[bucket]; key != -1; key = next[key]) {
+                bucketOf[key] = -1;
+                currentNumNodes--;
+            }
+            head[bucket] = -1;
+        }
+        last = 0;
+    }
+
+    @Override
+    public void setStats(SearchStats.Query query) {
+        stats = query;
+    }
+
+    // ---------------------------Helper
+    // functions-----------------------------------
+
+    /**
+     * the bits of value, checked to be not below the last removed minimum
+     */
+    private long bitsOrThrow(double value) {
+        if (!(value >= 0.0)) {
+            throw new IllegalArgumentException("value must not be negative or NaN; received: " + value);
+        }
+        long b = Double.doubleToRawLongBits(value + 0.0); // adding 0.0 turns -0.0 into 0.0
+        if (b < last) {
+            throw new IllegalArgumentException("value below the last removed minimum; received: " + value);
+        }
+        return b;
+    }
+
+    /**
+     * the bucket of b: 0 if it equals last, else one more than the highest bit in
+     * which they differ
+     */
+    private int bucketIndex(long b) {
+        return b == last ? 0 : 64 - Long.numberOfLeadingZeros(b ^ last);
+    }
+
+    /**
+     * adds key at the front of bucket
+     */
+    private void link(int key, int bucket) {
+        int first = head[bucket];
+        next[key] = first;
+        prev[key] = -1;
+        if (first != -1) {
+            prev[first] = key;
+        }
+        head[bucket] = key;
+        bucketOf[key] = bucket;
+    }
+
+    /**
+     * removes key from its bucket
+     */
+    private void unlink(int key) {
+        int bucket = bucketOf[key];
+        if (prev[key] != -1) {
+            next[prev[key]] = next[key];
+        } else {
+            head[bucket] = next[key];
+        }
+        if (next[key] != -1) {
+            prev[next[key]] = prev[key];
+        }
+        bucketOf[key] = -1;
+    }
+
+    /**
+     * checks whether the key is within the bounds of the queue
+     */
+    private void keyInBoundsOrThrow(int key) {
+        if (key < 0 || key >= maxElements) {
+            throw new IllegalArgumentException("Key index out of bounds; received: " + key);
+        }
+    }
+}
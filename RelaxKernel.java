@@ -0,0 +1,63 @@
+/**
+ * The two inner loops of DenseDijkstra on an ImplicitActorGraph: relaxing
+ * every edge leaving a visited node and finding the closest unvisited node.
+ * On the complete actor graph both are straight passes over arrays, so they
+ * can use SIMD instructions. VectorRelaxKernel does that with the incubating
+ * Vector API when the jdk.incubator.vector module is present (run with
+ * --add-modules jdk.incubator.vector), otherwise ScalarRelaxKernel is used.
+ * Both give exactly the same results.
+ *
+ * A kernel lowers every actor it can, visited or not, so it is only correct
+ * when no weight is negative. DenseDijkstra only runs one on an actor graph
+ * without negative weights (see ImplicitActorGraph.hasNegativeWeight).
+ */
+public interface RelaxKernel {
+
+    /**
+     * relaxes the edges from nodeId to every actor. The new distance of actor j
+     * is nodeDistance plus baseCost[j] times one minus discount[row + j], or plus
+     * baseCost[j] alone when row is negative (the store node). Where it is less
+     * than distance[j], distance[j] and key[j] are lowered and previous[j] is set
+     * to nodeId. Visited actors are never lowered since their distance is not
+     * greater than nodeDistance, as long as no weight is negative; the caller has
+     * to make sure of that.
+     *
+     * @param nodeDistance the distance of the visited node
+     * @param nodeId       the visited node
+     * @param baseCost     the cost of hiring every actor directly
+     * @param discount     the discount matrix row by row
+     * @param row          where the discounts of nodeId start, -1 for the store
+     * @param distance     the distance of every node
+     * @param key          the distance of every unvisited node, infinity for
+     *                     visited nodes
+     * @param previous     the previous node of every node
+     */
+    void relax(double nodeDistance, int nodeId, double[] baseCost, double[] discount, int row, double[] distance,
+            double[] key, int[] previous);
+
+    /**
+     * @param key   the distance of every unvisited node, infinity for visited
+     *              nodes
+     * @param count the number of keys to scan
+     * @return the first index of the smallest key, -1 if every key is infinity
+     */
+    int minIndex(double[] key, int count);
+
+    /**
+     * picks the vector kernel if the Vector API can be loaded and the system
+     * property dijkstra.vector is not false, otherwise the scalar kernel.
+     *
+     * @return the fastest kernel available
+     */
+    static RelaxKernel select() {
+        if (!"false".equals(System.getProperty("dijkstra.vector"))) {
+            try {
+                // loaded by name so this interface still links when the module is missing
+                return (RelaxKernel) Class.forName("VectorRelaxKernel").getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // the jdk.incubator.vector module is not present, fall through
+            }
+        }
+        return new ScalarRelaxKernel();
+    }
+}
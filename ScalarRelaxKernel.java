@@ -0,0 +1,34 @@
+/**
+ * The plain loop version of RelaxKernel, used when the Vector API is not
+ * available. The JIT may still unroll these loops but does not vectorize the
+ * conditional stores.
+ */
+public class ScalarRelaxKernel implements RelaxKernel {
+
+    @Override
+    public void relax(double nodeDistance, int nodeId, double[] baseCost, double[] discount, int row,
+            double[] distance, double[] key, int[] previous) {
+        for (int j = 0; j < baseCost.length; j++) {
+            double weight = row < 0 ? baseCost[j] : baseCost[j] * (1 - discount[row + j]);
+            double newDistance = nodeDistance + weight;
+            if (newDistance < distance[j]) {
+                distance[j] = newDistance;
+                key[j] = newDistance;
+                previous[j] = nodeId;
+            }
+        }
+    }
+
+    @Override
+    public int minIndex(double[] key, int count) {
+        int best = -1;
+        double bestKey = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            if (key[i] < bestKey) {
+                bestKey = key[i];
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,275 @@
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and timers of the queries answered by Dijkstra.dijkstra and
+ * distancesFrom. For every query the settled nodes, relaxed edges, stale heap
+ * pops, heap inserts, decreases and removals, the swaps made while sifting and
+ * the latency are counted. Every query is added to process wide totals that
+ * snapshot reads, and is emitted as a DijkstraQueryEvent when a JFR recording
+ * is running.
+ *
+ * The instrumentation is off unless the JVM is started with
+ * -Ddijkstra.stats=true. ENABLED is a static final constant, so when it is
+ * false the JIT compiler removes every block guarded by it and the searches
+ * run exactly as without it.
+ */
+public final class SearchStats {
+    public static final boolean ENABLED = Boolean.getBoolean("dijkstra.stats"); // true to count and time queries
+
+    // the totals over every query so far, added to by many threads
+    private static final LongAdder QUERIES = new LongAdder();
+    private static final LongAdder SETTLED = new LongAdder();
+    private static final LongAdder RELAXED = new LongAdder();
+    private static final LongAdder STALE_POPS = new LongAdder();
+    private static final LongAdder INSERTS = new LongAdder();
+    private static final LongAdder DECREASES = new LongAdder();
+    private static final LongAdder REMOVALS = new LongAdder();
+    private static final LongAdder SIFT_STEPS = new LongAdder();
+    private static final LongAccumulator MAX_SIFT_DEPTH = new LongAccumulator(Math::max, 0);
+    private static final LongAdder TOTAL_NANOS = new LongAdder();
+    private static final LongAccumulator MAX_NANOS = new LongAccumulator(Math::max, 0);
+
+    // default constructor
+    private SearchStats() {
+    }
+
+    /**
+     * starts counting a query
+     *
+     * @param start the starting node
+     * @param end   the ending node, -1 for none
+     * @return the counters of the query
+     */
+    static Query begin(int start, int end) {
+        return new Query(start, end);
+    }
+
+    /**
+     * stops counting a query and adds it to the totals
+     *
+     * @param query    the counters returned by begin
+     * @param distance the weight of the shortest path found
+     */
+    static void end(Query query, double distance) {
+        long nanos = System.nanoTime() - query.startNanos;
+        QUERIES.increment();
+        SETTLED.add(query.settled);
+        RELAXED.add(query.relaxed);
+        STALE_POPS.add(query.stalePops);
+        INSERTS.add(query.inserts);
+        DECREASES.add(query.decreases);
+        REMOVALS.add(query.removals);
+        SIFT_STEPS.add(query.siftSteps);
+        MAX_SIFT_DEPTH.accumulate(query.maxSiftDepth);
+        TOTAL_NANOS.add(nanos);
+        MAX_NANOS.accumulate(nanos);
+        DijkstraQueryEvent event = query.event;
+        if (event.shouldCommit()) // a recording wants the event
+        {
+            event.start = query.start;
+            event.end = query.end;
+            event.distance = distance;
+            event.settledNodes = query.settled;
+            event.relaxedEdges = query.relaxed;
+            event.stalePops = query.stalePops;
+            event.heapInserts = query.inserts;
+            event.heapDecreases = query.decreases;
+            event.heapRemovals = query.removals;
+            event.siftSteps = query.siftSteps;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return the totals of every query counted so far
+     */
+    public static Snapshot snapshot() {
+        return new Snapshot(QUERIES.sum(), SETTLED.sum(), RELAXED.sum(), STALE_POPS.sum(), INSERTS.sum(),
+                DECREASES.sum(), REMOVALS.sum(), SIFT_STEPS.sum(), MAX_SIFT_DEPTH.get(), TOTAL_NANOS.sum(),
+                MAX_NANOS.get());
+    }
+
+    /**
+     * sets every total back to zero. Queries running at the same time may be
+     * counted partly before and partly after the reset.
+     */
+    public static void reset() {
+        QUERIES.reset();
+        SETTLED.reset();
+        RELAXED.reset();
+        STALE_POPS.reset();
+        INSERTS.reset();
+        DECREASES.reset();
+        REMOVALS.reset();
+        SIFT_STEPS.reset();
+        MAX_SIFT_DEPTH.reset();
+        TOTAL_NANOS.reset();
+        MAX_NANOS.reset();
+    }
+
+    // -------------------nested classes--------------------------------------------
+
+    /**
+     * the counters of one query. A query runs on one thread so the counters are
+     * plain fields; a heap counts into the query set with setStats.
+     */
+    public static final class Query {
+        final int start; // the starting node
+        final int end; // the ending node, -1 for none
+        final long startNanos; // System.nanoTime when the query began
+        final DijkstraQueryEvent event; // the JFR event of the query, its duration is the latency
+        long settled; // nodes removed from the heap and relaxed
+        long relaxed; // edges relaxed from the settled nodes
+        long stalePops; // nodes removed from the heap after a shorter path was processed
+        long inserts; // heap inserts
+        long decreases; // heap decrease keys
+        long removals; // heap removals
+        long siftSteps; // swaps made while sifting up or down
+        int maxSiftDepth; // the most swaps of a single sift
+
+        private Query(int start, int end) {
+            this.start = start;
+            this.end = end;
+            event = new DijkstraQueryEvent();
+            event.begin();
+            startNanos = System.nanoTime();
+        }
+
+        /**
+         * counts one sift of the given number of swaps
+         */
+        void sift(int steps) {
+            siftSteps += steps;
+            if (steps > maxSiftDepth) {
+                maxSiftDepth = steps;
+            }
+        }
+    }
+
+    /**
+     * the totals of every query counted up to one moment
+     */
+    public static final class Snapshot {
+        private final long queries;
+        private final long settledNodes;
+        private final long relaxedEdges;
+        private final long stalePops;
+        private final long heapInserts;
+        private final long heapDecreases;
+        private final long heapRemovals;
+        private final long siftSteps;
+        private final long maxSiftDepth;
+        private final long totalNanos;
+        private final long maxNanos;
+
+        private Snapshot(long queries, long settledNodes, long relaxedEdges, long stalePops, long heapInserts,
+                long heapDecreases, long heapRemovals, long siftSteps, long maxSiftDepth, long totalNanos,
+                long maxNanos) {
+            this.queries = queries;
+            this.settledNodes = settledNodes;
+            this.relaxedEdges = relaxedEdges;
+            this.stalePops = stalePops;
+            this.heapInserts = heapInserts;
+            this.heapDecreases = heapDecreases;
+            this.heapRemovals = heapRemovals;
+            this.siftSteps = siftSteps;
+            this.maxSiftDepth = maxSiftDepth;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        /**
+         * @return the number of queries
+         */
+        public long getQueries() {
+            return queries;
+        }
+
+        /**
+         * @return the number of nodes settled by all queries
+         */
+        public long getSettledNodes() {
+            return settledNodes;
+        }
+
+        /**
+         * @return the number of edges relaxed by all queries
+         */
+        public long getRelaxedEdges() {
+            return relaxedEdges;
+        }
+
+        /**
+         * @return the number of heap pops skipped because a shorter path was
+         *         processed before
+         */
+        public long getStalePops() {
+            return stalePops;
+        }
+
+        /**
+         * @return the number of heap inserts
+         */
+        public long getHeapInserts() {
+            return heapInserts;
+        }
+
+        /**
+         * @return the number of heap decrease keys
+         */
+        public long getHeapDecreases() {
+            return heapDecreases;
+        }
+
+        /**
+         * @return the number of heap removals
+         */
+        public long getHeapRemovals() {
+            return heapRemovals;
+        }
+
+        /**
+         * @return the number of swaps made while sifting
+         */
+        public long getSiftSteps() {
+            return siftSteps;
+        }
+
+        /**
+         * @return the most swaps made by a single sift
+         */
+        public long getMaxSiftDepth() {
+            return maxSiftDepth;
+        }
+
+        /**
+         * @return the summed latency of all queries in nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return the latency of the slowest query in nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * @return the mean latency of a query in nanoseconds, 0 without queries
+         */
+        public double getMeanNanos() {
+            return queries == 0 ? 0.0 : (double) totalNanos / queries;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("queries=%d settled=%d relaxed=%d stalePops=%d inserts=%d decreases=%d removals=%d"
+                    + " siftSteps=%d maxSiftDepth=%d meanNanos=%.0f maxNanos=%d", queries, settledNodes, relaxedEdges,
+                    stalePops, heapInserts, heapDecreases, heapRemovals, siftSteps, maxSiftDepth, getMeanNanos(),
+                    maxNanos);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The result of one search from a source to every node: the distance and the
+ * parent (previous node) of every node. Any path is read back by following
+ * the parents, so one search answers the query to every node; path fills a
+ * caller's int array instead of creating a list per path.
+ *
+ * The tree is written as text or as binary:
+ *
+ * <pre>
+ * text    a line "source nodes", then one line "node distance parent" per node,
+ *         optionally followed by the path in the output.txt form. Nodes are
+ *         counted from 1 and a parent of 0 means none
+ * binary  magic, nodes, source (ints), then the distances (doubles) and the
+ *         parents (ints, -1 for none), big endian as DataOutputStream writes
+ * </pre>
+ *
+ * On an actor graph the source is the store and the tree holds the cheapest
+ * hire path of every actor.
+ */
+public class ShortestPathTree {
+    private static final int FILE_MAGIC = 0x53505431; // "SPT1" at the start of a binary tree
+    private static final int BUFFER_BYTES = 1 << 16; // the size of the stream buffers
+
+    // instance variables
+    private final int source; // the starting node of every path
+    private final double[] distance; // the weight of the shortest path to every node
+    private final int[] parent; // the previous node of every node, -1 for the source and unreachable nodes
+
+    /**
+     * @param source   the starting node of the search
+     * @param distance the weight of the shortest path to every node
+     * @param parent   the previous node of every node, -1 for none
+     */
+    public ShortestPathTree(int source, double[] distance, int[] parent) {
+        if (distance.length != parent.length) {
+            throw new IllegalArgumentException("distance and parent arrays do not match");
+        }
+        if (source < 0 || source >= distance.length) {
+            throw new IllegalArgumentException("Invalid node index");
+        }
+        this.source = source;
+        this.distance = distance;
+        this.parent = parent;
+    }
+
+    /**
+     * @return the starting node of every path
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @return the number of nodes in the tree
+     */
+    public int size() {
+        return distance.length;
+    }
+
+    /**
+     * @param v a node
+     * @return the weight of the shortest path to v, positive infinity if there is
+     *         none
+     */
+    public double distance(int v) {
+        return distance[v];
+    }
+
+    /**
+     * @param v a node
+     * @return the previous node on the shortest path to v, -1 for the source and
+     *         unreachable nodes
+     */
+    public int parent(int v) {
+        return parent[v];
+    }
+
+    /**
+     * @param v a node
+     * @return the number of nodes on the path to v after the source, 0 for the
+     *         source and unreachable nodes
+     */
+    public int pathLength(int v) {
+        int length = 0;
+        if (distance[v] == Double.POSITIVE_INFINITY) {
+            return 0;
+        }
+        for (int at = v; at != source; at = parent[at]) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * writes the path to v into buffer in the form of Dijkstra.reconstructPath:
+     * the nodes after the source up to v, counted from 0. Nothing is allocated,
+     * so one buffer of size() ints serves every path.
+     *
+     * @param v      a node
+     * @param buffer receives the nodes of the path
+     * @return the number of nodes written
+     */
+    public int path(int v, int[] buffer) {
+        int length = pathLength(v);
+        int i = length;
+        for (int at = v; i > 0; at = parent[at]) // fill from the back
+        {
+            buffer[--i] = at;
+        }
+        return length;
+    }
+
+    /**
+     * @return the weight of the shortest path to every node, not copied
+     */
+    public double[] getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return the previous node of every node, not copied
+     */
+    public int[] getParent() {
+        return parent;
+    }
+
+    /**
+     * writes the tree as text to a file
+     *
+     * @param file  the file to write
+     * @param paths true to add the path of every node to its line
+     * @throws IOException if the file can not be written
+     */
+    public void writeText(File file, boolean paths) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            writeText(out, paths);
+        }
+    }
+
+    /**
+     * streams the tree as text. The stream is flushed but not closed.
+     *
+     * @param out   the stream to write to
+     * @param paths true to add the path of every node to its line
+     * @throws IOException if the stream can not be written
+     */
+    public void writeText(OutputStream out, boolean paths) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII), BUFFER_BYTES);
+        int[] buffer = paths ? new int[size()] : null; // shared by every path
+        writer.write(Integer.toString(source + 1));
+        writer.write(' ');
+        writer.write(Integer.toString(size()));
+        writer.write('\n');
+        for (int v = 0; v < size(); v++) {
+            writer.write(Integer.toString(v + 1));
+            writer.write(' ');
+            writer.write(Double.toString(distance[v]));
+            writer.write(' ');
+            writer.write(Integer.toString(parent[v] + 1));
+            if (paths) {
+                int length = path(v, buffer);
+                writer.write(" [");
+                for (int i = 0; i < length; i++) {
+                    if (i > 0) {
+                        writer.write(", ");
+                    }
+                    writer.write(Integer.toString(buffer[i] + 1));
+                }
+                writer.write(']');
+            }
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * writes the tree in the binary format to a file
+     *
+     * @param file the file to write
+     * @throws IOException if the file can not be written
+     */
+    public void writeBinary(File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            writeBinary(out);
+        }
+    }
+
+    /**
+     * streams the tree in the binary format. The stream is flushed but not
+     * closed.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream can not be written
+     */
+    public void writeBinary(OutputStream out) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(out, BUFFER_BYTES));
+        output.writeInt(FILE_MAGIC);
+        output.writeInt(size());
+        output.writeInt(source);
+        for (double d : distance) {
+            output.writeDouble(d);
+        }
+        for (int p : parent) {
+            output.writeInt(p);
+        }
+        output.flush();
+    }
+
+    /**
+     * reads a tree written by writeBinary
+     *
+     * @param file the file to read
+     * @return the tree
+     * @throws IOException if the file can not be read or is not a tree file
+     */
+    public static ShortestPathTree readBinary(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return readBinary(in);
+        }
+    }
+
+    /**
+     * reads a tree written by writeBinary from a stream
+     *
+     * @param in the stream to read
+     * @return the tree
+     * @throws IOException if the stream can not be read or holds no tree
+     */
+    public static ShortestPathTree readBinary(InputStream in) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(in, BUFFER_BYTES));
+        if (input.readInt() != FILE_MAGIC) {
+            throw new IOException("not a shortest path tree");
+        }
+        int n = input.readInt();
+        int source = input.readInt();
+        double[] distance = new double[n];
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            distance[i] = input.readDouble();
+        }
+        for (int i = 0; i < n; i++) {
+            parent[i] = input.readInt();
+        }
+        return new ShortestPathTree(source, distance, parent);
+    }
+}
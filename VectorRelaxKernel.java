@@ -0,0 +1,104 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * RelaxKernel on the incubating Vector API. Each step works on as many doubles
+ * as the widest vector register of the machine holds (4 with AVX2, 8 with
+ * AVX-512); the lanes left at the end of a row are done one at a time. The
+ * weights are computed with the same operations in the same order as
+ * ScalarRelaxKernel, so the results are identical.
+ *
+ * Needs --add-modules jdk.incubator.vector at compile and run time;
+ * RelaxKernel.select only loads this class when the module is present.
+ */
+public class VectorRelaxKernel implements RelaxKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED; // the widest vectors
+    private static final VectorSpecies<Integer> INT_SPECIES = VectorSpecies.of(int.class,
+            VectorShape.forBitSize(SPECIES.length() * Integer.SIZE)); // as many ints as SPECIES has doubles
+    private static final DoubleVector ONE = DoubleVector.broadcast(SPECIES, 1.0);
+
+    @Override
+    public void relax(double nodeDistance, int nodeId, double[] baseCost, double[] discount, int row,
+            double[] distance, double[] key, int[] previous) {
+        int n = baseCost.length;
+        int bound = SPECIES.loopBound(n);
+        DoubleVector from = DoubleVector.broadcast(SPECIES, nodeDistance);
+        IntVector via = IntVector.broadcast(INT_SPECIES, nodeId);
+        int j = 0;
+        for (; j < bound; j += SPECIES.length()) {
+            DoubleVector weight = row < 0 ? DoubleVector.fromArray(SPECIES, baseCost, j)
+                    : DoubleVector.fromArray(SPECIES, baseCost, j)
+                            .mul(ONE.sub(DoubleVector.fromArray(SPECIES, discount, row + j)));
+            DoubleVector newDistance = from.add(weight);
+            DoubleVector current = DoubleVector.fromArray(SPECIES, distance, j);
+            VectorMask<Double> shorter = newDistance.lt(current);
+            if (shorter.anyTrue()) {
+                current.blend(newDistance, shorter).intoArray(distance, j);
+                DoubleVector.fromArray(SPECIES, key, j).blend(newDistance, shorter).intoArray(key, j);
+                IntVector.fromArray(INT_SPECIES, previous, j).blend(via, shorter.cast(INT_SPECIES)).intoArray(previous,
+                        j);
+            }
+        }
+        for (; j < n; j++) // the lanes left over
+        {
+            double weight = row < 0 ? baseCost[j] : baseCost[j] * (1 - discount[row + j]);
+            double newDistance = nodeDistance + weight;
+            if (newDistance < distance[j]) {
+                distance[j] = newDistance;
+                key[j] = newDistance;
+                previous[j] = nodeId;
+            }
+        }
+    }
+
+    @Override
+    public int minIndex(double[] key, int count) {
+        int lanes = SPECIES.length();
+        int bound = count - count % (4 * lanes);
+        DoubleVector smallest0 = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        DoubleVector smallest1 = smallest0;
+        DoubleVector smallest2 = smallest0;
+        DoubleVector smallest3 = smallest0;
+        int i = 0;
+        // the smallest key first, four vectors at a time so the comparisons do not
+        // wait for each other
+        for (; i < bound; i += 4 * lanes) {
+            DoubleVector keys0 = DoubleVector.fromArray(SPECIES, key, i);
+            DoubleVector keys1 = DoubleVector.fromArray(SPECIES, key, i + lanes);
+            DoubleVector keys2 = DoubleVector.fromArray(SPECIES, key, i + 2 * lanes);
+            DoubleVector keys3 = DoubleVector.fromArray(SPECIES, key, i + 3 * lanes);
+            smallest0 = smallest0.blend(keys0, keys0.lt(smallest0));
+            smallest1 = smallest1.blend(keys1, keys1.lt(smallest1));
+            smallest2 = smallest2.blend(keys2, keys2.lt(smallest2));
+            smallest3 = smallest3.blend(keys3, keys3.lt(smallest3));
+        }
+        smallest0 = smallest0.blend(smallest1, smallest1.lt(smallest0));
+        smallest2 = smallest2.blend(smallest3, smallest3.lt(smallest2));
+        smallest0 = smallest0.blend(smallest2, smallest2.lt(smallest0));
+        double bestKey = smallest0.reduceLanes(VectorOperators.MIN);
+        for (; i < count; i++) {
+            bestKey = Math.min(bestKey, key[i]);
+        }
+        if (bestKey == Double.POSITIVE_INFINITY) {
+            return -1;
+        }
+        int vectorBound = SPECIES.loopBound(count);
+        for (i = 0; i < vectorBound; i += lanes) // then its first index
+        {
+            VectorMask<Double> equal = DoubleVector.fromArray(SPECIES, key, i).eq(bestKey);
+            if (equal.anyTrue()) {
+                return i + equal.firstTrue();
+            }
+        }
+        for (; i < count; i++) {
+            if (key[i] == bestKey) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
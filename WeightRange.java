@@ -0,0 +1,108 @@
+/**
+ * The smallest and largest edge weight of a graph and whether all weights are
+ * whole multiples of one fixed step such as 1 or 0.01. It is filled while the
+ * graph is built and lets Dijkstra pick a priority queue that fits the weights
+ * (see PriorityQueues). Weights only ever widen the range, so after an edge
+ * changes the range may be wider than the weights in the graph but never
+ * narrower.
+ */
+public class WeightRange {
+    public static final long MAX_SCALE = 1_000_000; // the finest step looked for is 10^-6
+    private static final double TOLERANCE = 1e-9; // the distance from a whole number a scaled weight may have
+
+    // instance variables
+    private long count; // the number of weights added
+    private double min = Double.POSITIVE_INFINITY; // the smallest weight
+    private double max = Double.NEGATIVE_INFINITY; // the largest weight
+    private long scale = 1; // 10^k for the fewest decimals k of every weight, 0 if there is none
+
+    /**
+     * the range of every weight in an array
+     *
+     * @param weights the weights
+     * @return the range of weights
+     */
+    public static WeightRange of(double[] weights) {
+        WeightRange range = new WeightRange();
+        for (double weight : weights) {
+            range.add(weight);
+        }
+        return range;
+    }
+
+    /**
+     * widens the range to include weight
+     *
+     * @param weight the weight of an edge
+     */
+    public void add(double weight) {
+        count++;
+        if (weight < min) {
+            min = weight;
+        }
+        if (weight > max) {
+            max = weight;
+        }
+        while (scale != 0 && !isWhole(weight * scale)) // needs more decimals
+        {
+            scale = scale >= MAX_SCALE ? 0 : scale * 10;
+        }
+    }
+
+    /**
+     * @return the number of weights added
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the smallest weight, positive infinity without weights
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return the largest weight, negative infinity without weights
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return 10^k where k is the fewest decimals every weight has, 0 if some
+     *         weight has more than 6 decimals
+     */
+    public long getScale() {
+        return scale;
+    }
+
+    /**
+     * @return true if every weight is a whole multiple of 1 / getScale()
+     */
+    public boolean isFixedPrecision() {
+        return scale != 0 && count > 0 && Double.isFinite(max);
+    }
+
+    /**
+     * @return the largest weight in steps of 1 / getScale()
+     */
+    public long scaledMax() {
+        return Math.round(max * scale);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + min + ", " + max + "] scale " + scale;
+    }
+
+    /**
+     * true if x is a whole number up to rounding errors. The tolerance is
+     * absolute: a relative one lets 60000.00001 count as 60000, and a DialQueue
+     * can then not tell the two apart.
+     */
+    private static boolean isWhole(double x) {
+        return Math.abs(x - Math.rint(x)) <= TOLERANCE;
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building the graph of an actor problem: one Edge object per pair the way
+ * Menu used to, the CSR arrays of ActorProblem.toGraph, converting the Menu
+ * graph to CSR, and the ImplicitActorGraph that stores no edges.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ConstructionBenchmark {
+    private static final MethodHandle TO_GRAPH = Library.method("ActorProblem", "toGraph", Library.type("CSRGraph"));
+    private static final MethodHandle FROM_GRAPH = Library.staticMethod("CSRGraph", "fromGraph",
+            Library.type("CSRGraph"), Library.type("graphEdge"));
+    private static final MethodHandle NEW_IMPLICIT = Library.constructor("ImplicitActorGraph",
+            Library.type("ActorProblem"));
+
+    @Param({ "500", "2000" })
+    public int actors;
+
+    private Object problem; // the ActorProblem to build graphs of
+    private Object menuGraph; // the graphEdge of problem, for the conversion
+
+    @Setup
+    public void setUp() throws Throwable {
+        problem = Graphs.actorProblem(actors, 42);
+        menuGraph = Graphs.menuGraph(problem);
+    }
+
+    @Benchmark
+    public Object menuGraph() throws Throwable {
+        return Graphs.menuGraph(problem);
+    }
+
+    @Benchmark
+    public Object csrGraph() throws Throwable {
+        return (Object) TO_GRAPH.invokeExact(problem);
+    }
+
+    @Benchmark
+    public Object csrFromMenuGraph() throws Throwable {
+        return (Object) FROM_GRAPH.invokeExact(menuGraph);
+    }
+
+    @Benchmark
+    public Object implicitGraph() throws Throwable {
+        return (Object) NEW_IMPLICIT.invokeExact(problem);
+    }
+}
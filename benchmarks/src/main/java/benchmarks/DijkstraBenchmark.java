@@ -0,0 +1,116 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single point to point queries and one to all searches of Dijkstra on sparse
+ * and dense graphs held by each graph backend. The graph parameter names the
+ * shape and the backend:
+ *
+ * <pre>
+ * sparse-graphEdge  random graph, Graphs.SPARSE_DEGREE edges per node, Edge lists
+ * sparse-csr        the same graph as a CSRGraph
+ * dense-graphEdge   actor problem built the way Menu does
+ * dense-csr         actor problem from ActorProblem.toGraph
+ * dense-implicit    actor problem as an ImplicitActorGraph
+ * </pre>
+ *
+ * Dense graphs are searched by DenseDijkstra, which Dijkstra picks by itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class DijkstraBenchmark {
+    private static final int QUERIES = 1024; // different targets cycled through by singleQuery
+
+    private static final MethodHandle NEW_GRAPH_DIJKSTRA = Library.constructor("Dijkstra", int.class,
+            Library.type("graphEdge"));
+    private static final MethodHandle NEW_CSR_DIJKSTRA = Library.constructor("Dijkstra", Library.type("CSRGraph"));
+    private static final MethodHandle NEW_NEIGHBOR_DIJKSTRA = Library.constructor("Dijkstra",
+            Library.type("NeighborGraph"));
+    private static final MethodHandle FROM_GRAPH = Library.staticMethod("CSRGraph", "fromGraph",
+            Library.type("CSRGraph"), Library.type("graphEdge"));
+    private static final MethodHandle TO_GRAPH = Library.method("ActorProblem", "toGraph", Library.type("CSRGraph"));
+    private static final MethodHandle NEW_IMPLICIT = Library.constructor("ImplicitActorGraph",
+            Library.type("ActorProblem"));
+    private static final MethodHandle DIJKSTRA = Library.method("Dijkstra", "dijkstra", double.class, int.class,
+            int.class);
+    private static final MethodHandle DISTANCES_FROM = Library.method("Dijkstra", "distancesFrom", double[].class,
+            int.class);
+
+    @Param({ "sparse-graphEdge", "sparse-csr", "dense-graphEdge", "dense-csr", "dense-implicit" })
+    public String graph;
+
+    @Param({ "1000" })
+    public int nodes; // nodes of a sparse graph, actors of a dense graph
+
+    private Object dijkstra; // the searcher over the chosen graph
+    private int start; // the starting node of every query
+    private int[] targets; // the ending nodes of the single queries
+    private int next; // the index of the next target
+
+    @Setup
+    public void setUp() throws Throwable {
+        int size;
+        switch (graph) {
+        case "sparse-graphEdge":
+            dijkstra = (Object) NEW_GRAPH_DIJKSTRA.invokeExact(nodes, Graphs.sparse(nodes, 42));
+            size = nodes;
+            break;
+        case "sparse-csr":
+            dijkstra = (Object) NEW_CSR_DIJKSTRA.invokeExact((Object) FROM_GRAPH.invokeExact(Graphs.sparse(nodes, 42)));
+            size = nodes;
+            break;
+        case "dense-graphEdge":
+            dijkstra = (Object) NEW_GRAPH_DIJKSTRA.invokeExact(nodes + 1,
+                    Graphs.menuGraph(Graphs.actorProblem(nodes, 42)));
+            size = nodes + 1;
+            break;
+        case "dense-csr":
+            dijkstra = (Object) NEW_CSR_DIJKSTRA.invokeExact((Object) TO_GRAPH.invokeExact(Graphs.actorProblem(nodes, 42)));
+            size = nodes + 1;
+            break;
+        case "dense-implicit":
+            dijkstra = (Object) NEW_NEIGHBOR_DIJKSTRA
+                    .invokeExact((Object) NEW_IMPLICIT.invokeExact(Graphs.actorProblem(nodes, 42)));
+            size = nodes + 1;
+            break;
+        default:
+            throw new IllegalArgumentException("unknown graph: " + graph);
+        }
+        start = size - 1; // the store node of the dense graphs
+        Random random = new Random(7);
+        targets = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            targets[i] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public double singleQuery() throws Throwable {
+        next = (next + 1) & (QUERIES - 1);
+        return (double) DIJKSTRA.invokeExact(dijkstra, start, targets[next]);
+    }
+
+    @Benchmark
+    public Object oneToAll() throws Throwable {
+        return (Object) DISTANCES_FROM.invokeExact(dijkstra, start);
+    }
+}
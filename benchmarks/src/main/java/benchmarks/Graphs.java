@@ -0,0 +1,107 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Random;
+
+/**
+ * Builds the graphs the benchmarks search. Sparse graphs have a fixed number of
+ * random edges per node; dense graphs are actor problems, where every node has
+ * an edge to every actor. The same seed always gives the same graph.
+ */
+final class Graphs {
+    static final int SPARSE_DEGREE = 8; // edges per node of a sparse graph
+
+    private static final MethodHandle NEW_GRAPH = Library.constructor("graphEdge", int.class);
+    private static final MethodHandle ADD_EDGE = Library.method("graphEdge", "addEdge", void.class, int.class,
+            int.class, double.class);
+    private static final MethodHandle NEW_PROBLEM = Library.constructor("ActorProblem", int.class, double[].class,
+            double[].class, int.class);
+    private static final MethodHandle ACTORS = Library.method("ActorProblem", "getActors", int.class);
+    private static final MethodHandle BASE_COST = Library.method("ActorProblem", "getBaseCost", double[].class);
+    private static final MethodHandle DISCOUNT = Library.method("ActorProblem", "getDiscount", double[].class);
+
+    private Graphs() {
+    }
+
+    /**
+     * @param nodes the number of nodes
+     * @param seed  the seed of the random weights
+     * @return a graphEdge with SPARSE_DEGREE random edges per node
+     */
+    static Object sparse(int nodes, long seed) throws Throwable {
+        Random random = new Random(seed);
+        Object graph = (Object) NEW_GRAPH.invokeExact(nodes);
+        for (int u = 0; u < nodes; u++) {
+            for (int i = 0; i < SPARSE_DEGREE; i++) {
+                ADD_EDGE.invokeExact(graph, u, random.nextInt(nodes), 1.0 + random.nextInt(100));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * @param actors the number of actors
+     * @param seed   the seed of the random costs and discounts
+     * @return an ActorProblem with random base costs and discounts
+     */
+    static Object actorProblem(int actors, long seed) throws Throwable {
+        Random random = new Random(seed);
+        double[] baseCost = new double[actors];
+        double[] discount = new double[actors * actors];
+        for (int i = 0; i < actors; i++) {
+            baseCost[i] = 1 + random.nextInt(1000);
+        }
+        for (int i = 0; i < discount.length; i++) {
+            discount[i] = random.nextInt(100) / 100.0;
+        }
+        return (Object) NEW_PROBLEM.invokeExact(actors, (Object) baseCost, (Object) discount, 1);
+    }
+
+    /**
+     * builds the graphEdge of an actor problem the way Menu does: one Edge object
+     * per pair of actors plus the edges of the store node
+     *
+     * @param problem an ActorProblem
+     * @return the graphEdge of the problem
+     */
+    static Object menuGraph(Object problem) throws Throwable {
+        int actors = (int) ACTORS.invokeExact(problem);
+        double[] baseCost = (double[]) (Object) BASE_COST.invokeExact(problem);
+        double[] discount = (double[]) (Object) DISCOUNT.invokeExact(problem);
+        Object graph = (Object) NEW_GRAPH.invokeExact(actors + 1);
+        for (int i = 0; i < actors; i++) {
+            ADD_EDGE.invokeExact(graph, actors, i, baseCost[i]);
+        }
+        for (int i = 0; i < actors; i++) {
+            for (int j = 0; j < actors; j++) {
+                double cost = baseCost[j];
+                ADD_EDGE.invokeExact(graph, i, j, i == j ? cost : cost * (1 - discount[i * actors + j]));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * the actor problem in the input.txt format without a trailing line break,
+     * which the Scanner based reader does not accept
+     *
+     * @param actors the number of actors
+     * @param seed   the seed of the random costs and discounts
+     * @return the text of the input file
+     */
+    static String inputText(int actors, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder();
+        text.append(actors).append('\n');
+        for (int i = 0; i < actors; i++) {
+            text.append(1 + random.nextInt(1000)).append(i + 1 < actors ? ' ' : '\n');
+        }
+        for (int i = 0; i < actors; i++) {
+            for (int j = 0; j < actors; j++) {
+                text.append(random.nextInt(100) / 100.0).append(j + 1 < actors ? ' ' : '\n');
+            }
+        }
+        text.append(1);
+        return text.toString();
+    }
+}
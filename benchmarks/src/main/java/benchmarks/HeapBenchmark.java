@@ -0,0 +1,107 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Insert, decrease and remove min on the generic MinIndexedDHeap and the
+ * primitive MinIndexedDoubleDHeap for several degrees. Every invocation fills
+ * a new heap with SIZE keys, decreases every key once and empties it, so the
+ * score is the time per key for all three operations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class HeapBenchmark {
+    private static final int SIZE = 1 << 16; // keys per invocation
+
+    private static final MethodHandle NEW_OBJECT_HEAP = Library.constructor("MinIndexedDHeap", int.class, int.class);
+    private static final MethodHandle OBJECT_INSERT = Library.method("MinIndexedDHeap", "insert", void.class,
+            int.class, Comparable.class);
+    private static final MethodHandle OBJECT_DECREASE = Library.method("MinIndexedDHeap", "decrease", void.class,
+            int.class, Comparable.class);
+    private static final MethodHandle OBJECT_REMOVE_MIN = Library.method("MinIndexedDHeap", "removeMinKeyIndex",
+            int.class);
+    private static final MethodHandle NEW_DOUBLE_HEAP = Library.constructor("MinIndexedDoubleDHeap", int.class,
+            int.class);
+    private static final MethodHandle DOUBLE_INSERT = Library.method("MinIndexedDoubleDHeap", "insert", void.class,
+            int.class, double.class);
+    private static final MethodHandle DOUBLE_DECREASE = Library.method("MinIndexedDoubleDHeap", "decrease",
+            void.class, int.class, double.class);
+    private static final MethodHandle DOUBLE_REMOVE_MIN = Library.method("MinIndexedDoubleDHeap",
+            "removeMinKeyIndex", int.class);
+
+    @Param({ "2", "4", "8" })
+    public int degree; // children per heap node
+
+    private double[] values; // the inserted value of every key
+    private double[] lowered; // the decreased value of every key
+    private Double[] boxedValues; // values boxed once, the generic heap stores objects
+    private Double[] boxedLowered; // lowered boxed once
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new double[SIZE];
+        lowered = new double[SIZE];
+        boxedValues = new Double[SIZE];
+        boxedLowered = new Double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = random.nextDouble() * 1000;
+            lowered[i] = values[i] * random.nextDouble();
+            boxedValues[i] = values[i];
+            boxedLowered[i] = lowered[i];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int objectHeap() throws Throwable {
+        Object heap = (Object) NEW_OBJECT_HEAP.invokeExact(degree, SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            OBJECT_INSERT.invokeExact(heap, i, (Object) boxedValues[i]);
+        }
+        for (int i = 0; i < SIZE; i++) {
+            OBJECT_DECREASE.invokeExact(heap, i, (Object) boxedLowered[i]);
+        }
+        int last = 0;
+        for (int i = 0; i < SIZE; i++) {
+            last = (int) OBJECT_REMOVE_MIN.invokeExact(heap);
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int doubleHeap() throws Throwable {
+        Object heap = (Object) NEW_DOUBLE_HEAP.invokeExact(degree, SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            DOUBLE_INSERT.invokeExact(heap, i, values[i]);
+        }
+        for (int i = 0; i < SIZE; i++) {
+            DOUBLE_DECREASE.invokeExact(heap, i, lowered[i]);
+        }
+        int last = 0;
+        for (int i = 0; i < SIZE; i++) {
+            last = (int) DOUBLE_REMOVE_MIN.invokeExact(heap);
+        }
+        return last;
+    }
+}
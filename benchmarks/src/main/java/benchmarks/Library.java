@@ -0,0 +1,86 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Reaches the classes of the core module. They live in the default package,
+ * which Java code in a named package can not refer to, and JMH refuses
+ * benchmarks in the default package. The benchmarks therefore call the core
+ * through method handles looked up once and kept in static final fields; the
+ * JIT treats such handles as constants and inlines the call, so the measured
+ * code is the same as a direct call.
+ *
+ * Every handle has its reference types, arrays included, erased to Object, so
+ * a benchmark calls it with invokeExact on Object receivers, arguments and
+ * results.
+ */
+final class Library {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private Library() {
+    }
+
+    /**
+     * @param name the name of a core class
+     * @return the class
+     */
+    static Class<?> type(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("core class missing from the class path: " + name, e);
+        }
+    }
+
+    /**
+     * @param owner      the name of a core class
+     * @param parameters the parameter types of the constructor
+     * @return a handle creating an instance, returning Object
+     */
+    static MethodHandle constructor(String owner, Class<?>... parameters) {
+        try {
+            return erase(LOOKUP.findConstructor(type(owner), MethodType.methodType(void.class, parameters)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("no such constructor of " + owner, e);
+        }
+    }
+
+    /**
+     * @param owner      the name of a core class
+     * @param name       the name of an instance method
+     * @param result     the return type of the method
+     * @param parameters the parameter types of the method
+     * @return a handle taking the receiver as its first argument
+     */
+    static MethodHandle method(String owner, String name, Class<?> result, Class<?>... parameters) {
+        try {
+            return erase(LOOKUP.findVirtual(type(owner), name, MethodType.methodType(result, parameters)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("no such method " + owner + "." + name, e);
+        }
+    }
+
+    /**
+     * @param owner      the name of a core class
+     * @param name       the name of a static method
+     * @param result     the return type of the method
+     * @param parameters the parameter types of the method
+     * @return a handle to the static method
+     */
+    static MethodHandle staticMethod(String owner, String name, Class<?> result, Class<?>... parameters) {
+        try {
+            return erase(LOOKUP.findStatic(type(owner), name, MethodType.methodType(result, parameters)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("no such method " + owner + "." + name, e);
+        }
+    }
+
+    /**
+     * turns every reference type of a handle into Object
+     */
+    private static MethodHandle erase(MethodHandle handle) {
+        return handle.asType(handle.type().erase());
+    }
+}
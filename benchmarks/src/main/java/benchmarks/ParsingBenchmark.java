@@ -0,0 +1,71 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading an input.txt file: the Scanner based readFile into a
+ * DoublyLinkedList of tokens, and the ByteTokenizer based ActorProblem.read
+ * into primitive arrays. The file is written once per trial and stays in the
+ * page cache, so this measures parsing rather than the disk.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ParsingBenchmark {
+    private static final MethodHandle NEW_READ_FILE = Library.constructor("readFile");
+    private static final MethodHandle FILE_TO_DLL = Library.method("readFile", "fileToDLL",
+            Library.type("DoublyLinkedList"), File.class);
+    private static final MethodHandle CLOSE_FILE = Library.method("readFile", "closeFile", void.class);
+    private static final MethodHandle READ_PROBLEM = Library.staticMethod("ActorProblem", "read",
+            Library.type("ActorProblem"), File.class);
+
+    @Param({ "300", "1000" })
+    public int actors;
+
+    private File input; // the generated input file
+
+    @Setup
+    public void setUp() throws IOException {
+        input = File.createTempFile("actors", ".txt");
+        Files.write(input.toPath(), Graphs.inputText(actors, 42).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @TearDown
+    public void tearDown() {
+        input.delete();
+    }
+
+    @Benchmark
+    public Object scannerTokens() throws Throwable {
+        Object reader = (Object) NEW_READ_FILE.invokeExact();
+        Object tokens = (Object) FILE_TO_DLL.invokeExact(reader, (Object) input);
+        CLOSE_FILE.invokeExact(reader); // fileToDLL leaves the Scanner open
+        return tokens;
+    }
+
+    @Benchmark
+    public Object byteTokenizer() throws Throwable {
+        return (Object) READ_PROBLEM.invokeExact((Object) input);
+    }
+}
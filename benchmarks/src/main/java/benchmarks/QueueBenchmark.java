@@ -0,0 +1,84 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One to all searches of Dijkstra on a sparse CSRGraph with whole weights for
+ * every kind of IndexedPriorityQueue. The queue parameter is auto for the
+ * queue PriorityQueues picks, or a PriorityQueues.Kind with the heap degree
+ * after a dash for D_ARY. Every queue runs in its own fork so the searches
+ * only ever see one queue class.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class QueueBenchmark {
+    private static final MethodHandle NEW_CSR_DIJKSTRA = Library.constructor("Dijkstra", Library.type("CSRGraph"));
+    private static final MethodHandle FROM_GRAPH = Library.staticMethod("CSRGraph", "fromGraph",
+            Library.type("CSRGraph"), Library.type("graphEdge"));
+    private static final MethodHandle WEIGHT_RANGE = Library.method("CSRGraph", "getWeightRange",
+            Library.type("WeightRange"));
+    private static final MethodHandle CREATE = Library.staticMethod("PriorityQueues", "create",
+            Library.type("IndexedPriorityQueue"), Library.type("PriorityQueues$Kind"), int.class, int.class,
+            Library.type("WeightRange"));
+    private static final MethodHandle SET_QUEUE = Library.method("Dijkstra", "setQueue", void.class,
+            Library.type("IndexedPriorityQueue"));
+    private static final MethodHandle DISTANCES_FROM = Library.method("Dijkstra", "distancesFrom", double[].class,
+            int.class);
+
+    @Param({ "auto", "D_ARY-2", "D_ARY-4", "D_ARY-8", "D_ARY-16", "PAIRING", "LAZY_BINARY", "RADIX", "DIAL" })
+    public String queue;
+
+    @Param({ "100000" })
+    public int nodes;
+
+    private Object dijkstra; // the searcher using the chosen queue
+    private int start; // the starting node of the next search
+
+    @Setup
+    public void setUp() throws Throwable {
+        Object graph = (Object) FROM_GRAPH.invokeExact(Graphs.sparse(nodes, 42));
+        dijkstra = (Object) NEW_CSR_DIJKSTRA.invokeExact(graph);
+        if (!queue.equals("auto")) {
+            String[] parts = queue.split("-");
+            int degree = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            Object kind = kind(parts[0]);
+            Object range = (Object) WEIGHT_RANGE.invokeExact(graph);
+            SET_QUEUE.invokeExact(dijkstra, (Object) CREATE.invokeExact(kind, degree, nodes, range));
+        }
+    }
+
+    @Benchmark
+    public Object oneToAll() throws Throwable {
+        start = (start + 1) % nodes;
+        return (Object) DISTANCES_FROM.invokeExact(dijkstra, start);
+    }
+
+    /**
+     * the PriorityQueues.Kind constant with a given name
+     */
+    private static Object kind(String name) {
+        for (Object constant : Library.type("PriorityQueues$Kind").getEnumConstants()) {
+            if (constant.toString().equals(name)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("unknown queue kind: " + name);
+    }
+}
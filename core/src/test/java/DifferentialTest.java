@@ -0,0 +1,685 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks every search of the project against a plain Dijkstra over the same
+ * random graphs. The reference keeps the baseline algorithm, a binary heap of
+ * tentative distances over the Edge lists of a graphEdge, so every engine is
+ * compared with the answers the project gave before it existed. The weights
+ * are quarters, which add up without rounding, so every distance must match
+ * exactly whatever order an engine adds the edges in.
+ */
+class DifferentialTest {
+    private static final int NODES = 300; // nodes of every random graph
+    private static final int DEGREE = 3; // average out degree of every random graph
+    private static final int QUERIES = 200; // random pairs checked per graph
+    private static final long[] SEEDS = { 1, 2, 3 }; // one random graph per seed
+
+    @Test
+    void dijkstraMatchesReference() {
+        for (long seed : SEEDS) {
+            graphEdge g = randomGraph(seed);
+            double[][] expected = referenceFromAll(g);
+            assertSearches(g, seed, expected, dijkstra(new Dijkstra(g.nodes, g), g.nodes));
+            assertSearches(g, seed, expected, dijkstra(new Dijkstra(CSRGraph.fromGraph(g)), g.nodes));
+        }
+    }
+
+    @Test
+    void bidirectionalMatchesReference() {
+        for (long seed : SEEDS) {
+            graphEdge g = randomGraph(seed);
+            Dijkstra dj = new Dijkstra(g.nodes, g);
+            assertSearches(g, seed, referenceFromAll(g), new Search() {
+                @Override
+                public double distance(int start, int end) {
+                    return dj.bidirectionalDijkstra(start, end);
+                }
+
+                @Override
+                public int[] path(int start, int end, double distance) {
+                    return lastPath(dj, start, end, g.nodes, distance);
+                }
+            });
+        }
+    }
+
+    @Test
+    void derivedGraphsFollowAddedEdges() {
+        graphEdge g = randomGraph(SEEDS[0]);
+        Dijkstra dj = new Dijkstra(g.nodes, g);
+        int start = 1;
+        int end = 0; // node 0 has no outgoing edges
+        dj.bidirectionalDijkstra(start, end); // builds the compressed graph and its reverse
+        g.addEdge(start, end, 0.25);
+        assertEquals(0.25, dj.bidirectionalDijkstra(start, end));
+        assertEquals(0.25, dj.dijkstra(start, end));
+    }
+
+    @Test
+    void cursorSearchesIgnoreTheCompressedCopy() {
+        graphEdge g = randomGraph(SEEDS[0]);
+        CSRGraph csr = CSRGraph.fromGraph(g);
+        long[] resets = new long[1]; // the nodes the cursors of the graph were reset to
+        NeighborGraph counted = new NeighborGraph() {
+            @Override
+            public int size() {
+                return csr.size();
+            }
+
+            @Override
+            public long edgeCount() {
+                return csr.edgeCount();
+            }
+
+            @Override
+            public EdgeCursor cursor() {
+                EdgeCursor edges = csr.cursor();
+                return new EdgeCursor() {
+                    @Override
+                    public void reset(int node) {
+                        resets[0]++;
+                        edges.reset(node);
+                    }
+
+                    @Override
+                    public boolean next() {
+                        return edges.next();
+                    }
+
+                    @Override
+                    public int target() {
+                        return edges.target();
+                    }
+
+                    @Override
+                    public double weight() {
+                        return edges.weight();
+                    }
+                };
+            }
+        };
+        Dijkstra dj = new Dijkstra(counted);
+        assertSearches(g, SEEDS[0], referenceFromAll(g), new Search() {
+            @Override
+            public double distance(int start, int end) {
+                dj.bidirectionalDijkstra(start, end); // copies the graph into a CSRGraph once
+                long before = resets[0];
+                double distance = dj.dijkstra(start, end);
+                assertTrue(resets[0] > before, "dijkstra did not search through the cursor");
+                return distance;
+            }
+
+            @Override
+            public int[] path(int start, int end, double distance) {
+                return lastPath(dj, start, end, g.nodes, distance);
+            }
+        });
+    }
+
+    @Test
+    void altMatchesReference() {
+        for (long seed : SEEDS) {
+            graphEdge g = randomGraph(seed);
+            Dijkstra dj = new Dijkstra(g.nodes, g);
+            Landmarks landmarks = Landmarks.select(CSRGraph.fromGraph(g), 4);
+            assertSearches(g, seed, referenceFromAll(g), new Search() {
+                @Override
+                public double distance(int start, int end) {
+                    return dj.altDijkstra(start, end, landmarks);
+                }
+
+                @Override
+                public int[] path(int start, int end, double distance) {
+                    return lastPath(dj, start, end, g.nodes, distance);
+                }
+            });
+        }
+    }
+
+    @Test
+    void contractionHierarchyMatchesReference() {
+        for (long seed : SEEDS) {
+            graphEdge g = randomGraph(seed);
+            ContractionHierarchy hierarchy = ContractionHierarchy.build(g);
+            assertSearches(g, seed, referenceFromAll(g), new Search() {
+                @Override
+                public double distance(int start, int end) {
+                    return hierarchy.distance(start, end);
+                }
+
+                @Override
+                public int[] path(int start, int end, double distance) {
+                    return hierarchy.path(start, end);
+                }
+            });
+        }
+    }
+
+    @Test
+    void batchMatchesReference() {
+        for (long seed : SEEDS) {
+            graphEdge g = randomGraph(seed);
+            double[][] expected = referenceFromAll(g);
+            BatchDijkstra batch = new BatchDijkstra(CSRGraph.fromGraph(g));
+            int[][] pairs = randomPairs(seed, g.nodes);
+            double[] distances = batch.distances(pairs[0], pairs[1]);
+            for (int i = 0; i < QUERIES; i++) {
+                assertEquals(expected[pairs[0][i]][pairs[1][i]], distances[i]);
+            }
+            double[][] rows = batch.oneToAll(pairs[0]);
+            for (int i = 0; i < QUERIES; i++) {
+                assertArrayEquals(expected[pairs[0][i]], rows[i]);
+            }
+        }
+    }
+
+    @Test
+    void deltaSteppingMatchesReference() {
+        for (long seed : SEEDS) {
+            graphEdge g = randomGraph(seed);
+            CSRGraph csr = CSRGraph.fromGraph(g);
+            DeltaStepping solver = new DeltaStepping(csr, DeltaStepping.suggestDelta(csr));
+            for (int start : randomPairs(seed, g.nodes)[0]) {
+                double[] expected = reference(g, start);
+                assertArrayEquals(expected, solver.shortestPaths(start));
+                int[] previous = solver.getPrevious();
+                for (int v = 0; v < g.nodes; v += 7) {
+                    if (expected[v] != Double.POSITIVE_INFINITY) {
+                        assertPath(g, pathTo(previous, start, v), expected[v]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void mappedGraphMatchesReference(@TempDir File directory) throws IOException {
+        for (long seed : SEEDS) {
+            graphEdge g = randomGraph(seed);
+            File file = new File(directory, "graph" + seed + ".bin");
+            BinaryGraphFile.write(CSRGraph.fromGraph(g), file);
+            MappedGraph mapped = BinaryGraphFile.map(file);
+            assertSearches(g, seed, referenceFromAll(g), dijkstra(new Dijkstra(mapped), g.nodes));
+        }
+    }
+
+    @Test
+    void denseMatchesReference() {
+        for (long seed : SEEDS) {
+            ActorProblem problem = randomProblem(seed, 60);
+            graphEdge g = toGraphEdge(problem.toGraph());
+            int store = g.nodes - 1; // the store is the last node
+            double[] expected = reference(g, store);
+            ImplicitActorGraph implicit = new ImplicitActorGraph(problem);
+            for (RelaxKernel kernel : new RelaxKernel[] { new ScalarRelaxKernel(), RelaxKernel.select() }) {
+                DenseDijkstra dense = new DenseDijkstra(implicit, kernel);
+                for (int end = 0; end < store; end++) {
+                    assertEquals(expected[end], dense.shortestPath(store, end), kernel + " to " + end);
+                }
+            }
+            Dijkstra dj = new Dijkstra(implicit);
+            for (int end = 0; end < store; end++) {
+                double distance = dj.dijkstra(store, end);
+                assertEquals(expected[end], distance);
+                assertPath(g, lastPath(dj, store, end, g.nodes, distance), distance);
+            }
+        }
+    }
+
+    @Test
+    void denseSolverRejectsNegativeWeights() {
+        ActorProblem problem = randomProblem(SEEDS[0], 60);
+        double[] discount = problem.getDiscount();
+        for (int i = 0; i < discount.length; i += 7) {
+            discount[i] = 1.5; // hiring the actor pays, the weight is negative
+        }
+        ImplicitActorGraph implicit = new ImplicitActorGraph(problem);
+        assertThrows(IllegalArgumentException.class, () -> new DenseDijkstra(implicit));
+        graphEdge g = toGraphEdge(problem.toGraph());
+        int store = g.nodes - 1;
+        Dijkstra dj = new Dijkstra(implicit); // searches with the heap instead
+        for (int end = 0; end < store; end++) {
+            double distance = dj.dijkstra(store, end);
+            assertPath(g, lastPath(dj, store, end, g.nodes, distance), distance);
+        }
+    }
+
+    @Test
+    void dynamicMatchesReference() {
+        for (long seed : SEEDS) {
+            graphEdge g = randomGraph(seed);
+            Random random = new Random(seed);
+            int source = 1;
+            DynamicShortestPaths paths = new DynamicShortestPaths(g, source);
+            for (int i = 0; i < 300; i++) {
+                int u = random.nextInt(g.nodes);
+                List<Edge> edges = g.graph.get(u);
+                int v = edges.isEmpty() || random.nextBoolean() ? random.nextInt(g.nodes)
+                        : edges.get(random.nextInt(edges.size())).nextNode; // mostly existing edges
+                paths.updateEdge(u, v, (1 + random.nextInt(100)) / 4.0);
+                assertArrayEquals(reference(g, source), paths.getDistance(), "after update " + i);
+            }
+            double[] expected = reference(g, source);
+            for (int v = 0; v < g.nodes; v++) {
+                if (expected[v] != Double.POSITIVE_INFINITY) {
+                    assertPath(g, pathTo(paths.getPrevious(), source, v), expected[v]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void pathsSurviveSearchesOfOtherDijkstras() {
+        graphEdge g = randomGraph(SEEDS[0]);
+        double[][] expected = referenceFromAll(g);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(g);
+        Dijkstra first = new Dijkstra(g.nodes, g);
+        Dijkstra second = new Dijkstra(CSRGraph.fromGraph(g));
+        int[][] pairs = randomPairs(SEEDS[0], g.nodes);
+        for (int i = 0; i + 1 < QUERIES; i += 2) {
+            int start = pairs[0][i];
+            int end = pairs[1][i];
+            double distance = first.dijkstra(start, end);
+            second.dijkstra(pairs[0][i + 1], pairs[1][i + 1]); // reuses the workspace of this thread
+            assertFirstPath(g, first, start, end, distance, expected);
+            distance = first.bidirectionalDijkstra(start, end);
+            second.bidirectionalDijkstra(pairs[0][i + 1], pairs[1][i + 1]);
+            assertFirstPath(g, first, start, end, distance, expected);
+            distance = first.hierarchyDijkstra(start, end, hierarchy);
+            second.dijkstra(pairs[0][i + 1], pairs[1][i + 1]);
+            assertFirstPath(g, first, start, end, distance, expected);
+        }
+    }
+
+    @Test
+    void queryCacheMatchesReference() {
+        for (long seed : SEEDS) {
+            graphEdge g = randomGraph(seed);
+            double[][] expected = referenceFromAll(g);
+            int[][] pairs = randomPairs(seed, g.nodes);
+            for (boolean cacheTrees : new boolean[] { false, true }) {
+                QueryCache cache = new QueryCache(new Dijkstra(g.nodes, g), g.nodes, QUERIES, cacheTrees);
+                for (int i = 0; i < QUERIES; i++) {
+                    int start = pairs[0][i] % 20; // few starts, so trees are reused
+                    int end = pairs[1][i];
+                    List<Integer> path = cache.path(start, end);
+                    double distance = cache.distance(start, end);
+                    assertEquals(expected[start][end], distance);
+                    assertSame(path, cache.path(start, end), "a hit returns the cached path");
+                    if (distance != Double.POSITIVE_INFINITY) {
+                        int[] nodes = new int[path.size() + 1];
+                        nodes[0] = start;
+                        for (int j = 0; j < path.size(); j++) {
+                            nodes[j + 1] = path.get(j) - 1;
+                        }
+                        assertPath(g, nodes, distance);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void queueKindsMatchReference() {
+        for (long seed : SEEDS) {
+            graphEdge g = randomGraph(seed);
+            double[][] expected = referenceFromAll(g);
+            CSRGraph csr = CSRGraph.fromGraph(g);
+            for (PriorityQueues.Kind kind : PriorityQueues.Kind.values()) {
+                Dijkstra dj = new Dijkstra(csr);
+                dj.setQueue(PriorityQueues.create(kind, 4, g.nodes, csr.getWeightRange()));
+                assertSearches(g, seed, expected, dijkstra(dj, g.nodes));
+            }
+        }
+        for (boolean lighterFirst : new boolean[] { true, false }) // a weight just off the grid, in both edge orders
+        {
+            graphEdge g = new graphEdge(5000);
+            if (lighterFirst) {
+                g.addEdge(0, 2, 60000);
+            }
+            g.addEdge(0, 1, 60000.00001);
+            if (!lighterFirst) {
+                g.addEdge(0, 2, 60000);
+            }
+            g.addEdge(2, 1, 0);
+            assertEquals(60000.0, new Dijkstra(g.nodes, g).dijkstra(0, 1));
+            assertEquals(60000.0, new Dijkstra(CSRGraph.fromGraph(g)).dijkstra(0, 1));
+        }
+        DialQueue dial = new DialQueue(2, 1, 1); // values that round to the same bucket leave in order
+        dial.insert(0, 1.0 + 1e-10);
+        dial.insert(1, 1.0);
+        assertEquals(1, dial.removeMinKeyIndex());
+        assertEquals(0, dial.removeMinKeyIndex());
+    }
+
+    @Test
+    void shortestPathTreeMatchesReference() {
+        for (long seed : SEEDS) {
+            graphEdge g = randomGraph(seed);
+            Dijkstra dj = new Dijkstra(g.nodes, g);
+            int[] buffer = new int[g.nodes];
+            for (int start : randomPairs(seed, g.nodes)[0]) {
+                double[] expected = reference(g, start);
+                ShortestPathTree tree = dj.shortestPathTree(start);
+                assertArrayEquals(expected, tree.getDistance());
+                for (int v = 0; v < g.nodes; v += 7) {
+                    if (expected[v] != Double.POSITIVE_INFINITY) {
+                        int length = tree.path(v, buffer);
+                        int[] path = new int[length + 1];
+                        path[0] = start;
+                        System.arraycopy(buffer, 0, path, 1, length);
+                        assertPath(g, path, expected[v]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void offHeapMatchesReference(@TempDir File directory) throws IOException {
+        for (long seed : SEEDS) {
+            graphEdge g = randomGraph(seed);
+            double[][] expected = referenceFromAll(g);
+            CSRGraph csr = CSRGraph.fromGraph(g);
+            try (OffHeapGraph direct = OffHeapGraph.copyOf(csr);
+                    OffHeapGraph mapped = OffHeapGraph.copyOf(csr, new File(directory, "graph" + seed + ".csr"))) {
+                assertSearches(g, seed, expected, dijkstra(new Dijkstra(direct), g.nodes));
+                assertSearches(g, seed, expected, dijkstra(new Dijkstra(mapped), g.nodes));
+            }
+        }
+    }
+
+    @Test
+    void compressedMatchesReference() {
+        for (long seed : SEEDS) {
+            graphEdge g = randomGraph(seed);
+            double[][] expected = referenceFromAll(g);
+            assertSearches(g, seed, expected, dijkstra(new Dijkstra(CompressedGraph.fromGraph(g)), g.nodes));
+            CompressedGraph floats = CompressedGraph.fromGraph(g, CompressedGraph.Weights.FLOAT, 0.0);
+            assertSearches(g, seed, expected, dijkstra(new Dijkstra(floats), g.nodes)); // quarters are exact floats
+            double maxError = 0.3; // quantized to multiples of 0.6, so most weights are off
+            Dijkstra quantized = new Dijkstra(
+                    CompressedGraph.fromGraph(g, CompressedGraph.Weights.QUANTIZED, maxError));
+            int[][] pairs = randomPairs(seed, g.nodes);
+            for (int i = 0; i < QUERIES; i++) {
+                double exact = expected[pairs[0][i]][pairs[1][i]];
+                double distance = quantized.dijkstra(pairs[0][i], pairs[1][i]);
+                if (exact == Double.POSITIVE_INFINITY) {
+                    assertEquals(exact, distance);
+                } else {
+                    assertEquals(exact, distance, maxError * (g.nodes - 1));
+                }
+            }
+        }
+    }
+
+    @Test
+    void queryServerBatchMatchesReference() throws IOException {
+        graphEdge g = randomGraph(SEEDS[0]);
+        double[][] expected = referenceFromAll(g);
+        int[][] pairs = randomPairs(SEEDS[0], g.nodes);
+        StringBuilder request = new StringBuilder();
+        for (int i = 0; i < QUERIES; i++) {
+            pairs[0][i] = i % 2 == 0 ? pairs[0][i] % 10 : pairs[0][i]; // half the sources repeat
+            request.append(pairs[0][i]).append(' ').append(pairs[1][i]).append('\n');
+        }
+        try (QueryServer server = new QueryServer(0, 2)) {
+            server.register("g", CSRGraph.fromGraph(g));
+            server.start();
+            URL url = new URL("http://127.0.0.1:" + server.getPort() + "/batch?graph=g&paths=true");
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(request.toString().getBytes(StandardCharsets.US_ASCII));
+            }
+            assertEquals(200, connection.getResponseCode());
+            try (BufferedReader in = new BufferedReader(
+                    new InputStreamReader(connection.getInputStream(), StandardCharsets.US_ASCII))) {
+                for (int i = 0; i < QUERIES; i++) {
+                    String line = in.readLine();
+                    int space = line.indexOf(' ');
+                    double distance = Double.parseDouble(line.substring(0, space));
+                    assertEquals(expected[pairs[0][i]][pairs[1][i]], distance, "pair " + i);
+                    if (distance != Double.POSITIVE_INFINITY) {
+                        String nodes = line.substring(space + 2, line.length() - 1); // inside the brackets
+                        int[] path = Arrays.stream(nodes.split(", ")).mapToInt(Integer::parseInt).toArray();
+                        assertEquals(pairs[0][i], path[0]);
+                        assertEquals(pairs[1][i], path[path.length - 1]);
+                        assertPath(g, path, distance);
+                    }
+                }
+                assertEquals(null, in.readLine());
+            }
+        }
+    }
+
+    // ---------------------------Helper
+    // functions-----------------------------------
+
+    /**
+     * a random directed graph with weights between 0.25 and 25 in steps of 0.25.
+     * Some nodes are left without edges so that some pairs are not connected.
+     */
+    private static graphEdge randomGraph(long seed) {
+        Random random = new Random(seed);
+        graphEdge g = new graphEdge(NODES);
+        for (int i = 0; i < NODES * DEGREE; i++) {
+            int from = random.nextInt(NODES);
+            int to = random.nextInt(NODES);
+            if (from % 17 != 0) // every 17th node has no outgoing edges
+            {
+                g.addEdge(from, to, (1 + random.nextInt(100)) / 4.0);
+            }
+        }
+        return g;
+    }
+
+    /**
+     * the distances from start to every node found by a plain Dijkstra
+     */
+    private static double[] reference(graphEdge g, int start) {
+        double[] distance = new double[g.nodes];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        distance[start] = 0.0;
+        PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        queue.add(new double[] { 0.0, start });
+        while (!queue.isEmpty()) {
+            double[] head = queue.poll();
+            int node = (int) head[1];
+            if (head[0] > distance[node]) // a stale entry
+            {
+                continue;
+            }
+            for (Edge edge : g.graph.get(node)) {
+                if (head[0] + edge.weight < distance[edge.nextNode]) {
+                    distance[edge.nextNode] = head[0] + edge.weight;
+                    queue.add(new double[] { distance[edge.nextNode], edge.nextNode });
+                }
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * the reference distances from every node
+     */
+    private static double[][] referenceFromAll(graphEdge g) {
+        double[][] distance = new double[g.nodes][];
+        for (int i = 0; i < g.nodes; i++) {
+            distance[i] = reference(g, i);
+        }
+        return distance;
+    }
+
+    /**
+     * random pairs of nodes, the first pair of every query in row 0 and the
+     * second in row 1
+     */
+    private static int[][] randomPairs(long seed, int n) {
+        Random random = new Random(seed * 31 + 7);
+        int[][] pairs = new int[2][QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            pairs[0][i] = random.nextInt(n);
+            pairs[1][i] = random.nextInt(n);
+        }
+        return pairs;
+    }
+
+    /**
+     * checks that a path of nodes counted from 0, start first, follows edges of
+     * the graph and weighs distance
+     */
+    private static void assertPath(graphEdge g, int[] path, double distance) {
+        double weight = 0.0;
+        for (int i = 1; i < path.length; i++) {
+            double lightest = Double.POSITIVE_INFINITY; // the lightest of any parallel edges
+            for (Edge edge : g.graph.get(path[i - 1])) {
+                if (edge.nextNode == path[i]) {
+                    lightest = Math.min(lightest, edge.weight);
+                }
+            }
+            assertTrue(lightest < Double.POSITIVE_INFINITY, "no edge " + path[i - 1] + " -> " + path[i]);
+            weight += lightest;
+        }
+        assertEquals(distance, weight, 1e-9);
+    }
+
+    /**
+     * the path of the last search of a Dijkstra as nodes counted from 0, start
+     * first
+     */
+    private static int[] lastPath(Dijkstra dj, int start, int end, int n, double distance) {
+        List<Integer> after = dj.reconstructPath(start, end, n, distance);
+        int[] path = new int[after.size() + 1];
+        path[0] = start;
+        for (int i = 0; i < after.size(); i++) {
+            path[i + 1] = after.get(i) - 1; // reconstructPath counts from 1
+        }
+        return path;
+    }
+
+    /**
+     * checks the distance of a search and the path reconstructPath reads for it
+     */
+    private static void assertFirstPath(graphEdge g, Dijkstra dj, int start, int end, double distance,
+            double[][] expected) {
+        assertEquals(expected[start][end], distance, "distance " + start + " -> " + end);
+        if (distance != Double.POSITIVE_INFINITY) {
+            assertPath(g, lastPath(dj, start, end, g.nodes, distance), distance);
+        }
+    }
+
+    /**
+     * checks the distance and the path of every random pair against the
+     * reference
+     */
+    private static void assertSearches(graphEdge g, long seed, double[][] expected, Search search) {
+        int[][] pairs = randomPairs(seed, g.nodes);
+        for (int i = 0; i < QUERIES; i++) {
+            int start = pairs[0][i];
+            int end = pairs[1][i];
+            double distance = search.distance(start, end);
+            assertEquals(expected[start][end], distance, "distance " + start + " -> " + end);
+            if (distance != Double.POSITIVE_INFINITY) {
+                assertPath(g, search.path(start, end, distance), distance);
+            }
+        }
+    }
+
+    /**
+     * the path from start to v read from a previous array, start first
+     */
+    private static int[] pathTo(int[] previous, int start, int v) {
+        int length = 1;
+        for (int at = v; at != start; at = previous[at]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int at = v;
+        for (int i = length - 1; i > 0; i--) // walk back from v
+        {
+            path[i] = at;
+            at = previous[at];
+        }
+        path[0] = start;
+        return path;
+    }
+
+    /**
+     * a random actor problem with n actors
+     */
+    private static ActorProblem randomProblem(long seed, int n) {
+        Random random = new Random(seed);
+        double[] baseCost = new double[n];
+        double[] discount = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            baseCost[i] = 4 + random.nextInt(400) / 4.0;
+        }
+        for (int i = 0; i < discount.length; i++) {
+            discount[i] = random.nextInt(4) / 4.0; // 0, 0.25, 0.5 or 0.75
+        }
+        return new ActorProblem(n, baseCost, discount, 1 + random.nextInt(n));
+    }
+
+    /**
+     * the edges of a CSRGraph as a graphEdge
+     */
+    private static graphEdge toGraphEdge(CSRGraph csr) {
+        graphEdge g = new graphEdge(csr.size());
+        for (int u = 0; u < csr.size(); u++) {
+            for (int e = csr.offsets[u]; e < csr.offsets[u + 1]; e++) {
+                g.addEdge(u, csr.targets[e], csr.weights[e]);
+            }
+        }
+        return g;
+    }
+
+    // -------------------nested classes--------------------------------------------
+
+    /**
+     * one search engine: a distance query followed by the path it found
+     */
+    private interface Search {
+        double distance(int start, int end);
+
+        int[] path(int start, int end, double distance);
+    }
+
+    /**
+     * a Search through the dijkstra and reconstructPath of a Dijkstra
+     */
+    private static Search dijkstra(Dijkstra dj, int n) {
+        return new Search() {
+            @Override
+            public double distance(int start, int end) {
+                return dj.dijkstra(start, end);
+            }
+
+            @Override
+            public int[] path(int start, int end, double distance) {
+                return lastPath(dj, start, end, n, distance);
+            }
+        };
+    }
+}
@@ -11,6 +11,8 @@ public class graphEdge {
     // instance variables
     protected int nodes; // number of nodes in graph
     protected List<List<Edge>> graph; // an ArrayList of edges contained within the graph
+    protected long version; // incremented by every change nextNode the edges
+    protected final WeightRange weightRange = new WeightRange(); // the range of every weight given nextNode an edge
 
     // default constructor
     public graphEdge() {
@@ -48,5 +50,55 @@ public class graphEdge {
     public void addEdge(int startNode, int nextNode, double weight) {
         graph.get(startNode).add(new Edge(nextNode, weight)); // access graph at startNode and add new edge nextNode
                                                               // with weight weight
+        weightRange.add(weight);
+        version++; // anything computed from the old edges is now stale
+    }
+
+    /**
+     * changes the weight of the edge from startNode to nextNode. Every parallel
+     * edge between the two nodes gets the new weight; if there is no edge one is
+     * added. The Edge objects are changed in place.
+     * 
+     * @param startNode the starting node
+     * @param nextNode  the ending node
+     * @param weight    the new weight of the edge
+     * @return true if an edge was changed, false if a new edge was added
+     */
+    public boolean updateEdge(int startNode, int nextNode, double weight) {
+        boolean found = false;
+        for (Edge edge : graph.get(startNode)) // every edge leaving startNode
+        {
+            if (edge.nextNode == nextNode) {
+                edge.weight = weight;
+                found = true;
+            }
+        }
+        if (!found) {
+            addEdge(startNode, nextNode, weight);
+        } else {
+            weightRange.add(weight);
+            version++;
+        }
+        return found;
+    }
+
+    /**
+     * the version of the edges. It changes whenever an edge is added or updated,
+     * so anything computed from the graph can check whether it is still current.
+     * 
+     * @return the current version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * the range of the weights of the edges. The range only widens, so after
+     * updateEdge it may include weights no edge has any more.
+     * 
+     * @return the range of the edge weights
+     */
+    public WeightRange getWeightRange() {
+        return weightRange;
     }
 }